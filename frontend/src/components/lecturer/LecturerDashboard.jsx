@@ -128,6 +128,44 @@ const LecturerDashboard = () => {
         fetchDashboardData();
     }, []);
 
+    // Apply counter deltas pushed by the server instead of reloading the whole dashboard
+    useEffect(() => {
+        const applyDelta = (update) => {
+            if (update.type !== 'DASHBOARD_DELTA' || !update.data) {
+                return;
+            }
+            const delta = update.data;
+
+            setStats(prev => ({
+                ...prev,
+                completedTests: prev.completedTests + delta.submissionsGraded,
+                pendingAppeals: Math.max(0, prev.pendingAppeals + delta.appealsSubmitted - delta.appealsResolved)
+            }));
+
+            // Student totals are distinct across modules, so only those are re-fetched
+            if (delta.enrollments > 0) {
+                testAPI.getLecturerStats()
+                    .then(response => setStats(prev => ({ ...prev, totalStudents: response.data.totalStudents })))
+                    .catch(err => console.error('Error refreshing student count:', err));
+            }
+        };
+
+        let cancelled = false;
+        webSocketService.connect()
+            .then(() => {
+                if (!cancelled) {
+                    return webSocketService.subscribeToDashboardUpdates(applyDelta);
+                }
+            })
+            .catch(err => console.error('Dashboard updates unavailable:', err));
+
+        // The connection is shared, so only drop this component's subscription
+        return () => {
+            cancelled = true;
+            webSocketService.unsubscribeFromDashboardUpdates();
+        };
+    }, []);
+
     const handleCreateTest = () => {
         navigate('/lecturer/create-test');
     };
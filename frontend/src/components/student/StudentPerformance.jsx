@@ -89,8 +89,22 @@ const StudentPerformance = () => {
     };
 
     // Handlers
-    const handleModuleClick = (module) => {
+    const handleModuleClick = async (module) => {
         setSelectedModule(module);
+        try {
+            // Test results are loaded per module rather than with the summary
+            const response = await submissionAPI.getModuleResults(module.id);
+            const tests = response.data.map(test => ({
+                id: test.id,
+                testId: test.testId,
+                title: test.title,
+                score: test.score || 0,
+                submittedAt: test.submittedAt
+            }));
+            setSelectedModule({ ...module, tests });
+        } catch (err) {
+            console.error('Error fetching module results:', err);
+        }
     };
 
     const handleBackClick = () => {
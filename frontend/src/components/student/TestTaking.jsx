@@ -7,6 +7,10 @@ import {
     CircularProgress, Alert, TextField, LinearProgress
 } from '@mui/material';
 import { testAPI } from '../../services/api';
+import webSocketService from '../../services/websocket';
+
+// Keeps the student visible on the lecturer's live exam monitor between autosaves
+const PRESENCE_HEARTBEAT_MS = 30000;
 
 const TestTaking = () => {
     const { id } = useParams();
@@ -220,6 +224,23 @@ const TestTaking = () => {
     }, [timeRemaining]);
 
 
+    useEffect(() => {
+        if (!test) {
+            return;
+        }
+
+        const sendHeartbeat = () => webSocketService.send(`/app/tests/${testId}/heartbeat`);
+        let heartbeat;
+        webSocketService.connect()
+            .then(() => {
+                heartbeat = setInterval(sendHeartbeat, PRESENCE_HEARTBEAT_MS);
+            })
+            .catch(err => console.error('Presence heartbeat unavailable:', err));
+
+        // Leave the shared connection open; stopping heartbeats lets the server expire this taker
+        return () => clearInterval(heartbeat);
+    }, [test, testId]);
+
     useEffect(() => {
         // Block navigation through browser history
         const blockNavigation = (e) => {
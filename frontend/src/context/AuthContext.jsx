@@ -1,4 +1,5 @@
 import { createContext, useState, useContext, useEffect } from 'react';
+import { authAPI } from '../services/api';
 
 const AuthContext = createContext(null);
 
@@ -50,6 +51,11 @@ export const AuthProvider = ({ children }) => {
     };
 
     const logout = () => {
+        const token = localStorage.getItem('token');
+        if (token && token !== 'null' && token !== 'undefined') {
+            // Revoke the token server-side; local logout goes ahead regardless
+            authAPI.logout(token).catch(() => {});
+        }
         setUser(null);
         localStorage.removeItem('user');
         localStorage.removeItem('token');
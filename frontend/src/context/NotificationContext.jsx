@@ -33,15 +33,18 @@ export const NotificationProvider = ({ children }) => {
         // Disable debug logging
         client.debug = () => {};
 
+        // The server authenticates the STOMP session with the JWT on CONNECT
+        const token = localStorage.getItem('token');
+
         client.connect(
-            {},
+            { Authorization: `Bearer ${token}` },
             frame => {
                 console.log('Connected to WebSocket');
                 setStompClient(client);
                 setConnected(true);
 
-                // Subscribe to user-specific notifications
-                client.subscribe(`/user/${user.id}/queue/notifications`, message => {
+                // Subscribe to user-specific notifications (routed by the authenticated session)
+                client.subscribe('/user/queue/notifications', message => {
                     try {
                         const notification = JSON.parse(message.body);
                         handleNewNotification(notification);
@@ -107,6 +107,10 @@ export const authAPI = {
     login: (credentials) => api.post('/api/auth/login', credentials),
     register: (userData) => api.post('/api/auth/register', userData),
     getProfile: () => api.get('/api/auth/profile'),
+    // Token passed explicitly since storage is cleared before the request goes out
+    logout: (token) => api.post('/api/auth/logout', null, {
+        headers: { Authorization: `Bearer ${token}` }
+    }),
     clearAuth: () => {
         localStorage.removeItem('token');
         localStorage.removeItem('user');
@@ -688,7 +692,9 @@ export const submissionAPI = {
                     modules: []
                 };
             });
-    }
+    },
+
+    getModuleResults: (moduleId) => api.get(`/api/submissions/performance/modules/${moduleId}`)
 };
 
 
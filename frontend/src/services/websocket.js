@@ -1,6 +1,8 @@
 import SockJS from 'sockjs-client';
 import { Stomp } from '@stomp/stompjs';
 
+const DASHBOARD_TOPIC = '/user/queue/dashboard';
+
 /**
  * WebSocket service for real-time dashboard updates
  */
@@ -10,37 +12,46 @@ class WebSocketService {
         this.connected = false;
         this.subscriptions = new Map();
         this.messageHandlers = new Map();
+        this.pendingConnect = null;
     }
 
     /**
      * Connect to the WebSocket server
      */
     connect() {
-        return new Promise((resolve, reject) => {
-            if (this.connected) {
-                resolve();
-                return;
-            }
+        if (this.connected) {
+            return Promise.resolve();
+        }
+        // Components mounting together share one connection attempt
+        if (this.pendingConnect) {
+            return this.pendingConnect;
+        }
 
+        this.pendingConnect = new Promise((resolve, reject) => {
             const socket = new SockJS('/ws');
             this.stompClient = Stomp.over(socket);
 
             // Disable console logs from STOMP
             this.stompClient.debug = () => {};
 
-            this.stompClient.connect({},
+            const token = localStorage.getItem('token');
+
+            this.stompClient.connect({ Authorization: `Bearer ${token}` },
                 () => {
                     this.connected = true;
+                    this.pendingConnect = null;
                     console.log('WebSocket connected');
                     resolve();
                 },
                 (error) => {
                     console.error('WebSocket connection error:', error);
                     this.connected = false;
+                    this.pendingConnect = null;
                     reject(error);
                 }
             );
         });
+        return this.pendingConnect;
     }
 
     /**
@@ -59,12 +70,18 @@ class WebSocketService {
     }
 
     /**
-     * Subscribe to dashboard updates for a specific lecturer
-     * @param {number} lecturerId - ID of the lecturer
+     * Subscribe to dashboard updates for the connected lecturer
      * @param {function} callback - Callback function for handling messages
      */
-    subscribeToDashboardUpdates(lecturerId, callback) {
-        return this.subscribe(`/topic/dashboard/${lecturerId}`, callback);
+    subscribeToDashboardUpdates(callback) {
+        return this.subscribe(DASHBOARD_TOPIC, callback);
+    }
+
+    /**
+     * Stop receiving dashboard updates without closing the shared connection
+     */
+    unsubscribeFromDashboardUpdates() {
+        this.unsubscribe(DASHBOARD_TOPIC);
     }
 
     /**
@@ -93,6 +110,30 @@ class WebSocketService {
         });
     }
 
+    /**
+     * Unsubscribe from a single topic, leaving the shared connection open for other components
+     * @param {string} topic - Topic to unsubscribe from
+     */
+    unsubscribe(topic) {
+        const subscription = this.subscriptions.get(topic);
+        if (subscription) {
+            subscription.unsubscribe();
+            this.subscriptions.delete(topic);
+        }
+    }
+
+    /**
+     * Send a message to an application destination
+     * @param {string} destination - Destination such as /app/tests/1/heartbeat
+     * @param {object} body - Message payload
+     */
+    send(destination, body = {}) {
+        if (!this.connected) {
+            return;
+        }
+        this.stompClient.send(destination, {}, JSON.stringify(body));
+    }
+
     /**
      * Register a handler for specific message types
      * @param {string} type - Message type (e.g., "TEST_SUBMISSION")
@@ -0,0 +1,47 @@
+package com.classassess.classassess.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class AnalyticsConfig {
+
+    @Value("${app.analytics.executor.core-pool-size:4}")
+    private int corePoolSize;
+
+    @Value("${app.analytics.executor.max-pool-size:8}")
+    private int maxPoolSize;
+
+    @Value("${app.analytics.executor.queue-capacity:100}")
+    private int queueCapacity;
+
+    @Value("${app.analytics.executor.query-pool-size:6}")
+    private int queryPoolSize;
+
+    // Bounded pool for background analytics work so it can't starve request threads
+    @Bean
+    public ThreadPoolTaskExecutor analyticsExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(corePoolSize);
+        executor.setMaxPoolSize(maxPoolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("analytics-");
+        executor.initialize();
+        return executor;
+    }
+
+    // Separate pool for the per-section dashboard queries, so a refresh running on
+    // analyticsExecutor never waits on tasks queued behind itself
+    @Bean
+    public ThreadPoolTaskExecutor analyticsQueryExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(queryPoolSize);
+        executor.setMaxPoolSize(queryPoolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("analytics-query-");
+        executor.initialize();
+        return executor;
+    }
+}
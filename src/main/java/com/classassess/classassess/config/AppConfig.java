@@ -1,15 +1,39 @@
 package com.classassess.classassess.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 @Configuration
 public class AppConfig {
 
+    @Value("${app.security.password.bcrypt-strength:10}")
+    private int bcryptStrength;
+
+    @Value("${app.security.password.verify-pool-size:0}")
+    private int verifyPoolSize;
+
+    @Value("${app.security.password.verify-queue-capacity:200}")
+    private int verifyQueueCapacity;
+
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        return new BCryptPasswordEncoder(bcryptStrength);
+    }
+
+    // Login hash checks run here so a burst of logins can use at most this many cores
+    @Bean
+    public ThreadPoolTaskExecutor passwordVerifyExecutor() {
+        int poolSize = verifyPoolSize > 0 ? verifyPoolSize : Runtime.getRuntime().availableProcessors();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(verifyQueueCapacity);
+        executor.setThreadNamePrefix("password-verify-");
+        executor.initialize();
+        return executor;
     }
-}
\ No newline at end of file
+}
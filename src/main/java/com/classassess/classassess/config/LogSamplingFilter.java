@@ -0,0 +1,47 @@
+package com.classassess.classassess.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps one in every {@code sampleRate} enabled events at or below {@code maxLevel} from loggers
+ * under {@code loggerPrefix}; warnings and errors always pass. Configured in logback-spring.xml.
+ * Dropped events are rejected before a message is formatted or an appender is touched.
+ */
+public class LogSamplingFilter extends TurboFilter {
+
+    private final AtomicLong counter = new AtomicLong();
+
+    private String loggerPrefix = "";
+    private int sampleRate = 1;
+    private Level maxLevel = Level.INFO;
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        if (sampleRate <= 1 || level == null || level.isGreaterOrEqual(Level.WARN) || level.toInt() > maxLevel.toInt()) {
+            return FilterReply.NEUTRAL;
+        }
+        // Only count events the logger would actually emit; disabled ones are dropped later anyway
+        if (!level.isGreaterOrEqual(logger.getEffectiveLevel()) || !logger.getName().startsWith(loggerPrefix)) {
+            return FilterReply.NEUTRAL;
+        }
+        return counter.getAndIncrement() % sampleRate == 0 ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+
+    public void setLoggerPrefix(String loggerPrefix) {
+        this.loggerPrefix = loggerPrefix;
+    }
+
+    public void setSampleRate(int sampleRate) {
+        this.sampleRate = sampleRate;
+    }
+
+    public void setMaxLevel(String maxLevel) {
+        this.maxLevel = Level.toLevel(maxLevel, Level.INFO);
+    }
+}
@@ -1,6 +1,7 @@
 package com.classassess.classassess.config;
 
 import com.classassess.classassess.security.JwtAuthenticationFilter;
+import com.classassess.classassess.security.RateLimitFilter;
 import com.classassess.classassess.service.UserService;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -30,10 +31,12 @@ public class SecurityConfig {
 
     private final UserService userService;
     private final PasswordEncoder passwordEncoder;
+    private final RateLimitFilter rateLimitFilter;
 
-    public SecurityConfig(UserService userService, PasswordEncoder passwordEncoder) {
+    public SecurityConfig(UserService userService, PasswordEncoder passwordEncoder, RateLimitFilter rateLimitFilter) {
         this.userService = userService;
         this.passwordEncoder = passwordEncoder;
+        this.rateLimitFilter = rateLimitFilter;
     }
 
     @Bean
@@ -54,6 +57,8 @@ public class SecurityConfig {
                                 "/api/public/**",
                                 "/api/modules/public/available-for-registration",
                                 "/error",
+                                // WebSocket handshake; STOMP CONNECT is authenticated by JwtChannelInterceptor
+                                "/ws/**",
                                 "/swagger-ui/**",
                                 "/v3/api-docs/**"
                         ).permitAll()
@@ -73,7 +78,9 @@ public class SecurityConfig {
                         .sessionCreationPolicy(SessionCreationPolicy.STATELESS)
                 )
                 .authenticationProvider(authenticationProvider())
-                .addFilterBefore(jwtAuthenticationFilter(), UsernamePasswordAuthenticationFilter.class);
+                .addFilterBefore(jwtAuthenticationFilter(), UsernamePasswordAuthenticationFilter.class)
+                // After authentication so limits are tracked per user
+                .addFilterAfter(rateLimitFilter, JwtAuthenticationFilter.class);
 
         return http.build();
     }
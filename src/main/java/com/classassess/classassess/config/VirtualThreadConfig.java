@@ -0,0 +1,49 @@
+package com.classassess.classassess.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.annotation.EnableAsync;
+
+import javax.sql.DataSource;
+
+/**
+ * Opt-in virtual thread mode, active only with spring.threads.virtual.enabled=true on JDK 21 or newer
+ * (the virtual-threads profile). Spring Boot then serves requests, @Async work and scheduled jobs on
+ * virtual threads; this adds the JDBC limiter so they can't flood the connection pool.
+ * <p>
+ * Permits match the pool: a request may need a second connection while holding one (parallel
+ * dashboard sections, the scheduled jobs' named lock), so fewer would starve the node. Application
+ * code blocks on JDBC only under java.util.concurrent locks, never monitors; run with
+ * -Djdk.tracePinnedThreads=short to check for pinning inside the driver.
+ */
+@Configuration
+@EnableAsync
+@ConditionalOnThreading(Threading.VIRTUAL)
+@Slf4j
+public class VirtualThreadConfig {
+
+    // Static so the post-processor doesn't force this configuration to be created early
+    @Bean
+    public static BeanPostProcessor jdbcConcurrencyLimiter(Environment environment) {
+        int maxConcurrent = environment.getProperty("app.jdbc.limiter.max-concurrent", Integer.class, 20);
+        long acquireTimeoutMs = environment.getProperty("app.jdbc.limiter.acquire-timeout-ms", Long.class, 10000L);
+
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ConcurrencyLimitedDataSource)) {
+                    log.info("Virtual threads enabled; limiting data source '{}' to {} concurrent connections",
+                            beanName, maxConcurrent);
+                    return new ConcurrencyLimitedDataSource(dataSource, maxConcurrent, acquireTimeoutMs);
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -7,8 +7,10 @@ import com.classassess.classassess.model.Role;
 import com.classassess.classassess.model.User;
 import com.classassess.classassess.repository.ResourceRepository;
 import com.classassess.classassess.repository.UserSoftDeleteRepository;
+import com.classassess.classassess.security.AuthenticatedUser;
 import com.classassess.classassess.service.*;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
@@ -34,6 +36,7 @@ import java.util.HashMap;
 @PreAuthorize("hasRole('ADMIN')")
 @CrossOrigin(origins = {"http://localhost:5173"}, allowCredentials = "true")
 @RequiredArgsConstructor
+@Slf4j
 public class AdminController {
 
     private final UserService userService;
@@ -43,6 +46,8 @@ public class AdminController {
     private final ResourceRepository resourceRepository;
     private final NotificationService notificationService;
     private final AuthService authService;
+    private final WebSocketMetricsService webSocketMetricsService;
+    private final WebSocketSessionRegistry webSocketSessionRegistry;
 
     @GetMapping("/dashboard/stats")
     public ResponseEntity<DashboardStatsDTO> getDashboardStats() {
@@ -70,7 +75,7 @@ public class AdminController {
 
             return ResponseEntity.ok(stats);
         } catch (Exception e) {
-            e.printStackTrace();
+            log.error("Error in getDashboardStats", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
@@ -92,7 +97,7 @@ public class AdminController {
                     .collect(Collectors.toList());
             return ResponseEntity.ok(requestDTOs);
         } catch (Exception e) {
-            e.printStackTrace();
+            log.error("Error in getAccountRequests", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
@@ -104,7 +109,7 @@ public class AdminController {
             authService.updateAccountStatus(userId, User.AccountStatus.APPROVED);
             return ResponseEntity.ok().build();
         } catch (Exception e) {
-            e.printStackTrace();
+            log.error("Error in approveAccount", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
@@ -116,7 +121,7 @@ public class AdminController {
             authService.updateAccountStatus(userId, User.AccountStatus.REJECTED);
             return ResponseEntity.ok().build();
         } catch (Exception e) {
-            e.printStackTrace();
+            log.error("Error in rejectAccount", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
@@ -125,8 +130,7 @@ public class AdminController {
         User user = userService.getUserById(userId);
 
         // Get current admin user
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        User admin = (User) auth.getPrincipal();
+        AuthenticatedUser admin = userService.getCurrentPrincipal();
 
         user.setAccountStatus(status);
         user.setStatusUpdatedAt(LocalDateTime.now());
@@ -145,7 +149,7 @@ public class AdminController {
                     .collect(Collectors.toList());
             return ResponseEntity.ok(userDTOs);
         } catch (Exception e) {
-            e.printStackTrace();
+            log.error("Error in getAllUsers", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
@@ -171,7 +175,7 @@ public class AdminController {
 
     @PostMapping("/users")
     public ResponseEntity<UserDTO> createUser(@RequestBody UserDTO userDTO) {
-        System.out.println(userDTO);
+        log.debug("Creating user: {}", userDTO);
         User user = convertToEntity(userDTO);
         // Set account status to APPROVED for users created by admin
         user.setAccountStatus(User.AccountStatus.APPROVED);
@@ -220,8 +224,7 @@ public class AdminController {
 
                     // Get current admin user
                     Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-                    if (auth != null && auth.getPrincipal() instanceof User) {
-                        User admin = (User) auth.getPrincipal();
+                    if (auth != null && auth.getPrincipal() instanceof AuthenticatedUser admin) {
                         user.setReviewedById(admin.getId());
                     }
 
@@ -236,7 +239,7 @@ public class AdminController {
             User updatedUser = userService.updateUser(id, user);
             return ResponseEntity.ok(convertToDTO(updatedUser));
         } catch (Exception e) {
-            e.printStackTrace();
+            log.error("Error in updateUserStatus", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
@@ -257,6 +260,14 @@ public class AdminController {
     public ResponseEntity<Map<String, Object>> getActiveSessions() {
         Map<String, Object> stats = new HashMap<>();
         stats.put("activeSessions", sessionService.getActiveSessionCount());
+        stats.put("activeSessionsByRole", sessionService.getActiveSessionCountByRole());
+        return ResponseEntity.ok(stats);
+    }
+
+    @GetMapping("/stats/websocket")
+    public ResponseEntity<Map<String, Object>> getWebSocketStats() {
+        Map<String, Object> stats = webSocketMetricsService.getStats();
+        stats.put("connectedUsers", webSocketSessionRegistry.getConnectedUserCount());
         return ResponseEntity.ok(stats);
     }
 
@@ -266,7 +277,7 @@ public class AdminController {
             List<User> users = userSoftDeleteRepository.findAllIncludingDeleted();
             return ResponseEntity.ok(users);
         } catch (Exception e) {
-            e.printStackTrace();
+            log.error("Error in getAllUsersIncludingDeleted", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
@@ -277,7 +288,7 @@ public class AdminController {
             User deletedUser = userService.softDeleteUser(id);
             return ResponseEntity.ok(convertToDTO(deletedUser));
         } catch (Exception e) {
-            e.printStackTrace();
+            log.error("Error in softDeleteUser", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
@@ -288,7 +299,7 @@ public class AdminController {
             User restoredUser = userService.restoreUser(id);
             return ResponseEntity.ok(convertToDTO(restoredUser));
         } catch (Exception e) {
-            e.printStackTrace();
+            log.error("Error in restoreUser", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
@@ -367,7 +378,7 @@ public class AdminController {
                     Files.deleteIfExists(path);
                 } catch (IOException e) {
                     // Log the error but continue to delete the database record
-                    System.err.println("Error deleting file: " + e.getMessage());
+                    log.warn("Error deleting file: {}", e.getMessage());
                 }
             }
 
@@ -380,7 +391,7 @@ public class AdminController {
         } catch (ResourceNotFoundException e) {
             return ResponseEntity.notFound().build();
         } catch (Exception e) {
-            e.printStackTrace();
+            log.error("Error in deleteResource", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(new ApiResponse(false, "Error deleting resource: " + e.getMessage()));
         }
@@ -4,6 +4,7 @@ import com.classassess.classassess.dto.AppealDTO;
 import com.classassess.classassess.dto.AppealResolutionDTO;
 import com.classassess.classassess.service.AppealService;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -14,6 +15,7 @@ import java.util.Map;
 @RestController
 @RequestMapping("/api/tests")
 @RequiredArgsConstructor
+@Slf4j
 public class AppealController {
     private final AppealService appealService;
 
@@ -48,7 +50,7 @@ public class AppealController {
             return ResponseEntity.ok(appeal);
         } catch (Exception e) {
             // Log the exception for server-side debugging
-            System.out.println("Error resolving appeal with id: " + appealId);
+            log.warn("Error resolving appeal with id: {}", appealId);
 
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
 
@@ -1,7 +1,10 @@
 package com.classassess.classassess.controller;
 
 import com.classassess.classassess.dto.*;
+import com.classassess.classassess.exception.TooManyRequestsException;
 import com.classassess.classassess.service.AuthService;
+import com.classassess.classassess.service.SessionService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -18,6 +21,7 @@ import java.util.Map;
 public class AuthController {
 
     private final AuthService authService;
+    private final SessionService sessionService;
 
     @PostMapping("/register")
     public ResponseEntity<AuthResponse> register(@Valid @RequestBody RegisterRequest request) {
@@ -33,18 +37,28 @@ public class AuthController {
     }
 
     @PostMapping("/login")
-    public ResponseEntity<AuthResponse> login(@Valid @RequestBody LoginRequest request) {
+    public ResponseEntity<AuthResponse> login(@Valid @RequestBody LoginRequest request,
+                                              HttpServletRequest httpRequest) {
         try {
             log.info("Received login request for email: {}", request.getEmail());
-            AuthResponse response = authService.login(request);
+            AuthResponse response = authService.login(request, httpRequest.getRemoteAddr());
             log.info("Successfully logged in user with email: {}", request.getEmail());
             return ResponseEntity.ok(response);
+        } catch (TooManyRequestsException e) {
+            log.warn("Login throttled for email: {}", request.getEmail());
+            throw e;
         } catch (Exception e) {
             log.error("Login failed for email: {}", request.getEmail(), e);
             throw new RuntimeException("Login failed: " + e.getMessage());
         }
     }
 
+    @PostMapping("/logout")
+    public ResponseEntity<?> logout(@RequestHeader(value = "Authorization", required = false) String authHeader) {
+        sessionService.removeSession(authHeader);
+        return ResponseEntity.ok(Map.of("message", "Logged out successfully"));
+    }
+
     @GetMapping("/profile")
     public ResponseEntity<AuthResponse> getProfile() {
         try {
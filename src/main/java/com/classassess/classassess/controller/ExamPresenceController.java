@@ -0,0 +1,27 @@
+package com.classassess.classassess.controller;
+
+import com.classassess.classassess.security.StompPrincipal;
+import com.classassess.classassess.service.ExamPresenceService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.messaging.handler.annotation.DestinationVariable;
+import org.springframework.messaging.handler.annotation.MessageMapping;
+import org.springframework.stereotype.Controller;
+
+import java.security.Principal;
+
+/**
+ * STOMP heartbeats from students taking a test, sent to /app/tests/{testId}/heartbeat
+ */
+@Controller
+@RequiredArgsConstructor
+public class ExamPresenceController {
+
+    private final ExamPresenceService examPresenceService;
+
+    @MessageMapping("/tests/{testId}/heartbeat")
+    public void heartbeat(@DestinationVariable Long testId, Principal principal) {
+        if (principal instanceof StompPrincipal stompPrincipal) {
+            examPresenceService.heartbeat(testId, stompPrincipal.getUserId());
+        }
+    }
+}
@@ -14,6 +14,7 @@ import com.classassess.classassess.service.TestService;
 import com.classassess.classassess.service.UserService;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.core.io.FileSystemResource;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
@@ -38,6 +39,7 @@ import com.classassess.classassess.dto.TestDTO;
 @RequestMapping("/api/modules")
 @CrossOrigin(origins = {"http://localhost:5173"}, allowCredentials = "true")
 @RequiredArgsConstructor
+@Slf4j
 public class ModuleController {
 
     private final ModuleService moduleService;
@@ -96,13 +98,12 @@ public class ModuleController {
     @PreAuthorize("hasAnyRole('LECTURER', 'ADMIN')")
     public ResponseEntity<?> createModule(@RequestBody ModuleDTO moduleDTO) {
         try {
-            System.out.println("Creating module with data: " + moduleDTO);
+            log.debug("Creating module with data: {}", moduleDTO);
             ModuleDTO created = moduleService.createModule(moduleDTO);
-            System.out.println("Module created successfully: " + created.getId());
+            log.debug("Module created successfully: {}", created.getId());
             return ResponseEntity.ok(created);
         } catch (Exception e) {
-            System.err.println("Error creating module: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error creating module", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(new ApiResponse(false, "Error creating module: " + e.getMessage()));
         }
@@ -112,12 +113,11 @@ public class ModuleController {
     @PreAuthorize("hasAnyRole('LECTURER', 'ADMIN')")
     public ResponseEntity<?> updateModule(@PathVariable Long id, @RequestBody ModuleDTO moduleDTO) {
         try {
-            System.out.println("Updating module with id: " + id);
+            log.debug("Updating module with id: {}", id);
             ModuleDTO updated = moduleService.updateModule(id, moduleDTO);
             return ResponseEntity.ok(updated);
         } catch (Exception e) {
-            System.err.println("Error updating module: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error updating module", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(new ApiResponse(false, "Error updating module: " + e.getMessage()));
         }
@@ -127,12 +127,11 @@ public class ModuleController {
     @PreAuthorize("hasAnyRole('LECTURER', 'ADMIN')")
     public ResponseEntity<?> deleteModule(@PathVariable Long id) {
         try {
-            System.out.println("Deleting module with id: " + id);
+            log.debug("Deleting module with id: {}", id);
             moduleService.deleteModule(id);
             return ResponseEntity.ok().build();
         } catch (Exception e) {
-            System.err.println("Error deleting module: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error deleting module", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(new ApiResponse(false, "Error deleting module: " + e.getMessage()));
         }
@@ -196,13 +195,12 @@ public class ModuleController {
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<List<ModuleDTO>> getAllModulesWithDetails() {
         try {
-            System.out.println("Admin requesting all modules with details");
+            log.debug("Admin requesting all modules with details");
             List<ModuleDTO> modules = moduleService.getAllModulesWithDetails();
-            System.out.println("Found " + modules.size() + " modules to return");
+            log.debug("Found {} modules to return", modules.size());
             return ResponseEntity.ok(modules);
         } catch (Exception e) {
-            System.err.println("Error in /admin/all endpoint: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error in /admin/all endpoint", e);
 
             // Return empty list instead of 500 error to avoid frontend crash
             return ResponseEntity.ok(Collections.emptyList());
@@ -215,15 +213,14 @@ public class ModuleController {
             @PathVariable Long id,
             @RequestBody Map<String, Boolean> status) {
         try {
-            System.out.println("Toggling module status for id: " + id);
+            log.debug("Toggling module status for id: {}", id);
             boolean isActive = status.get("active");
-            System.out.println("Setting active status to: " + isActive);
+            log.debug("Setting active status to: {}", isActive);
 
             ModuleDTO updatedModule = moduleService.toggleModuleStatus(id, isActive);
             return ResponseEntity.ok(updatedModule);
         } catch (Exception e) {
-            System.err.println("Error toggling module status: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error toggling module status", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(null);
         }
@@ -256,7 +253,7 @@ public class ModuleController {
         } catch (ResourceNotFoundException e) {
             return ResponseEntity.notFound().build();
         } catch (Exception e) {
-            e.printStackTrace();
+            log.error("Error in uploadResource", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
@@ -302,7 +299,7 @@ public class ModuleController {
         } catch (ResourceNotFoundException e) {
             return ResponseEntity.notFound().build();
         } catch (Exception e) {
-            e.printStackTrace();
+            log.error("Error in downloadResource", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(new ApiResponse(false, "Error downloading resource"));
         }
@@ -320,7 +317,7 @@ public class ModuleController {
         } catch (ResourceNotFoundException e) {
             return ResponseEntity.notFound().build();
         } catch (Exception e) {
-            e.printStackTrace();
+            log.error("Error in getModuleStudents", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
@@ -332,14 +329,14 @@ public class ModuleController {
             @PathVariable Long moduleId,
             @PathVariable Long resourceId) {
 
-        System.out.println("DELETE request for resource " + resourceId + " in module " + moduleId);
+        log.debug("DELETE request for resource {} in module {}", resourceId, moduleId);
 
         try {
             // Find the resource
             Resource resource = resourceRepository.findById(resourceId)
                     .orElseThrow(() -> new ResourceNotFoundException("Resource not found"));
 
-            System.out.println("Found resource: " + resource.getTitle());
+            log.debug("Found resource: {}", resource.getTitle());
 
             // Verify ownership
             if (!resource.getModule().getId().equals(moduleId)) {
@@ -353,29 +350,29 @@ public class ModuleController {
                     String filePath = resource.getUrl().replace("/uploads", "uploads");
                     Path path = Paths.get(filePath);
                     Files.deleteIfExists(path);
-                    System.out.println("Physical file deleted successfully");
+                    log.debug("Physical file deleted successfully");
                 } catch (IOException e) {
-                    System.err.println("Error deleting file: " + e.getMessage());
+                    log.warn("Error deleting file: {}", e.getMessage());
                     // Continue with database deletion
                 }
             }
 
             // Delete from database - use direct SQL to ensure deletion
-            System.out.println("Deleting resource from database");
+            log.debug("Deleting resource from database");
             resourceRepository.deleteById(resourceId);
 
             // Verify deletion
             boolean exists = resourceRepository.existsById(resourceId);
-            System.out.println("Resource still exists after deletion: " + exists);
+            log.debug("Resource still exists after deletion: {}", exists);
 
             if (exists) {
                 // Force delete if still exists
-                System.out.println("Resource still exists, forcing deletion");
+                log.debug("Resource still exists, forcing deletion");
                 resourceRepository.deleteById(resourceId);
 
                 // Second verification
                 exists = resourceRepository.existsById(resourceId);
-                System.out.println("Resource still exists after forced deletion: " + exists);
+                log.debug("Resource still exists after forced deletion: {}", exists);
 
                 if (exists) {
                     return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -388,7 +385,7 @@ public class ModuleController {
                     .body(new ApiResponse(true, "Resource deleted successfully"));
 
         } catch (Exception e) {
-            e.printStackTrace();
+            log.error("Error in deleteResource", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(new ApiResponse(false, "Error deleting resource: " + e.getMessage()));
         }
@@ -396,12 +393,12 @@ public class ModuleController {
     @GetMapping("/{moduleId}/tests/{testId}")
     public ResponseEntity<?> getTestDetails(@PathVariable Long moduleId, @PathVariable Long testId) {
         try {
-            System.out.println("Fetching test details for moduleId=" + moduleId + ", testId=" + testId);
+            log.debug("Fetching test details for moduleId={}, testId={}", moduleId, testId);
 
             // Check if module exists
             boolean moduleExists = moduleRepository.existsById(moduleId);
             if (!moduleExists) {
-                System.out.println("Module not found: moduleId=" + moduleId);
+                log.warn("Module not found: moduleId={}", moduleId);
                 return ResponseEntity.status(HttpStatus.NOT_FOUND)
                         .body(new ApiResponse(false, "Module not found"));
             }
@@ -409,18 +406,17 @@ public class ModuleController {
             // Check if test exists
             boolean testExists = testService.testExists(testId);
             if (!testExists) {
-                System.out.println("Test not found: testId=" + testId);
+                log.warn("Test not found: testId={}", testId);
                 return ResponseEntity.status(HttpStatus.NOT_FOUND)
                         .body(new ApiResponse(false, "Test not found"));
             }
 
             // Get the test data
             TestDTO testDTO = testService.getTestById(testId);
-            System.out.println("Successfully retrieved test details: " + testDTO);
+            log.debug("Successfully retrieved test details: {}", testDTO);
             return ResponseEntity.ok(testDTO);
         } catch (Exception e) {
-            System.err.println("Error fetching test details: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error fetching test details", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(new ApiResponse(false, "Error fetching test details: " + e.getMessage()));
         }
@@ -432,7 +428,7 @@ public class ModuleController {
             @PathVariable Long moduleId,
             @RequestBody TestDTO testDTO) {
         try {
-            System.out.println("Creating test for module id: " + moduleId);
+            log.debug("Creating test for module id: {}", moduleId);
 
             // Set the moduleId from the path parameter
             testDTO.setModuleId(moduleId);
@@ -445,8 +441,7 @@ public class ModuleController {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
                     .body(new ApiResponse(false, e.getMessage()));
         } catch (Exception e) {
-            System.err.println("Error creating test: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error creating test", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(new ApiResponse(false, "Error creating test: " + e.getMessage()));
         }
@@ -473,7 +468,7 @@ public class ModuleController {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
                     .body(Map.of("error", true, "message", e.getMessage()));
         } catch (Exception e) {
-            e.printStackTrace();
+            log.error("Error in getStudentTests", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", true, "message", "Error retrieving student tests: " + e.getMessage()));
         }
@@ -485,8 +480,8 @@ public class ModuleController {
             @PathVariable Long id,
             @RequestBody AnnouncementRequest announcementRequest) {
 
-        System.out.println("Posting announcement for module: " + id);
-        System.out.println("Title: " + announcementRequest.getTitle());
+        log.debug("Posting announcement for module: {}", id);
+        log.debug("Title: {}", announcementRequest.getTitle());
 
         try {
             AnnouncementDTO announcement = moduleService.createAnnouncement(
@@ -494,14 +489,13 @@ public class ModuleController {
                     announcementRequest.getTitle(),
                     announcementRequest.getContent());
 
-            System.out.println("Announcement created with ID: " + announcement.getId());
+            log.debug("Announcement created with ID: {}", announcement.getId());
             return ResponseEntity.ok(announcement);
         } catch (ResourceNotFoundException e) {
-            System.err.println("Resource not found: " + e.getMessage());
+            log.warn("Resource not found: {}", e.getMessage());
             return ResponseEntity.notFound().build();
         } catch (Exception e) {
-            System.err.println("Error creating announcement: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error creating announcement", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
@@ -521,7 +515,7 @@ public class ModuleController {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
                     .body(new ApiResponse(false, e.getMessage()));
         } catch (Exception e) {
-            e.printStackTrace();
+            log.error("Error in deleteAnnouncement", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(new ApiResponse(false, "Error deleting announcement: " + e.getMessage()));
         }
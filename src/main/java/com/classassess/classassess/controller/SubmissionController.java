@@ -50,4 +50,12 @@ public class SubmissionController {
                     ));
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Get graded test results for one module
+     */
+    @GetMapping("/performance/modules/{moduleId}")
+    public ResponseEntity<List<Map<String, Object>>> getModuleResults(@PathVariable Long moduleId) {
+        return ResponseEntity.ok(submissionService.getModuleResults(moduleId));
+    }
+}
@@ -9,10 +9,13 @@ import com.classassess.classassess.model.SubmissionStatus;
 import com.classassess.classassess.repository.MCQOptionRepository;
 import com.classassess.classassess.repository.QuestionRepository;
 import com.classassess.classassess.repository.SubmissionRepository;
+import com.classassess.classassess.service.ExamPresenceService;
 import com.classassess.classassess.service.SubmissionService;
 import com.classassess.classassess.service.TestService;
 import com.classassess.classassess.service.UserService;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import com.classassess.classassess.model.User;
@@ -26,12 +29,14 @@ import java.util.Map;
 @RestController
 @RequestMapping("/api/tests")
 @RequiredArgsConstructor
+@Slf4j
 public class TestController {
     private final TestService testService;
     private final QuestionRepository questionRepository;
     private final MCQOptionRepository mcqOptionRepository;
     private final SubmissionService submissionService;
     private final UserService userService;
+    private final ExamPresenceService examPresenceService;
 
     @GetMapping("/student")
     public ResponseEntity<List<TestDTO>> getStudentTests() {
@@ -141,8 +146,10 @@ public class TestController {
     }
 
     @GetMapping("/lecturer/analytics/activity")
-    public ResponseEntity<List<TestActivityDTO>> getTestActivity() {
-        return ResponseEntity.ok(testService.getTestActivity());
+    public ResponseEntity<List<TestActivityDTO>> getTestActivity(
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to) {
+        return ResponseEntity.ok(testService.getTestActivity(from, to));
     }
 
     @GetMapping("/lecturer/analytics/ai-confidence")
@@ -150,6 +157,30 @@ public class TestController {
         return ResponseEntity.ok(testService.getAIConfidence());
     }
 
+    @GetMapping("/{id}/score-distribution")
+    public ResponseEntity<ScoreDistributionDTO> getTestScoreDistribution(@PathVariable Long id) {
+        return ResponseEntity.ok(testService.getTestScoreDistribution(id));
+    }
+
+    @GetMapping("/{id}/item-analysis")
+    public ResponseEntity<ItemAnalysisDTO> getItemAnalysis(@PathVariable Long id) {
+        return ResponseEntity.ok(testService.getItemAnalysis(id));
+    }
+
+    @GetMapping("/lecturer/analytics/modules/{moduleId}/score-distribution")
+    public ResponseEntity<ScoreDistributionDTO> getModuleScoreDistribution(@PathVariable Long moduleId) {
+        return ResponseEntity.ok(testService.getModuleScoreDistribution(moduleId));
+    }
+
+    @GetMapping("/lecturer/analytics/slice")
+    public ResponseEntity<List<AnalyticsSliceDTO>> getAnalyticsSlice(
+            @RequestParam(defaultValue = "MONTH") String groupBy,
+            @RequestParam(required = false) Long moduleId,
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to) {
+        return ResponseEntity.ok(testService.getAnalyticsSlice(groupBy, moduleId, from, to));
+    }
+
     @PostMapping("/modules/{moduleId}/tests")
     public ResponseEntity<TestDTO> createTestForModule(
             @PathVariable Long moduleId,
@@ -206,9 +237,25 @@ public class TestController {
 
         // If all checks pass, proceed with returning the test
         TestDTO testDTO = testService.getTestForStudent(id);
+        examPresenceService.recordOpened(test, currentUser);
         return ResponseEntity.ok(testDTO);
     }
 
+    @GetMapping("/{id}/presence")
+    public ResponseEntity<?> getTestPresence(@PathVariable Long id) {
+        User currentUser = userService.getCurrentUser();
+        Test test = testService.getTestEntity(id);
+
+        if (test.getLecturer() == null || !test.getLecturer().getId().equals(currentUser.getId())) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of(
+                    "error", true,
+                    "message", "You can only monitor your own tests"
+            ));
+        }
+
+        return ResponseEntity.ok(examPresenceService.getPresence(id));
+    }
+
     @GetMapping("/debug/question/{id}")
     public ResponseEntity<?> debugQuestion(@PathVariable Long id) {
         Question question = questionRepository.findById(id)
@@ -226,24 +273,23 @@ public class TestController {
     @GetMapping("/{submissionId}/detailed-results")
     public ResponseEntity<Map<String, Object>> getDetailedTestResults(@PathVariable Long submissionId) {
         try {
-            System.out.println("Fetching detailed results for test ID: " + submissionId);
+            log.debug("Fetching detailed results for test ID: {}", submissionId);
 
             // Get current user for logging purposes
             User currentUser = userService.getCurrentUser();
-            System.out.println("Current user ID: " + currentUser.getId());
+            log.debug("Current user ID: {}", currentUser.getId());
 
             Map<String, Object> results = submissionService.getDetailedTestResults(submissionId);
-            System.out.println("Results found: " + (results != null));
+            log.debug("Results found: {}", results != null);
             return ResponseEntity.ok(results);
         } catch (ResourceNotFoundException e) {
-            System.err.println("Test not found or access denied: " + e.getMessage());
+            log.warn("Test not found or access denied: {}", e.getMessage());
             return ResponseEntity.status(404).body(Map.of(
                     "error", true,
                     "message", e.getMessage()
             ));
         } catch (Exception e) {
-            System.err.println("Error getting detailed results: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error getting detailed results", e);
             return ResponseEntity.badRequest().body(Map.of(
                     "error", true,
                     "message", e.getMessage()
@@ -278,18 +324,18 @@ public class TestController {
             @PathVariable Long moduleId,
             @PathVariable Long testId) {
         try {
-            System.out.println("Controller: Attempting to cancel test " + testId);
+            log.debug("Controller: Attempting to cancel test {}", testId);
 
             // Get current user and test
             User currentUser = userService.getCurrentUser();
             Test test = testService.getTestEntity(testId);
 
-            System.out.println("Found test with ID " + testId + ", status: " + test.getStatus());
+            log.debug("Found test with ID {}, status: {}", testId, test.getStatus());
 
             // Authorization check
             if (!test.getLecturer().getId().equals(currentUser.getId())) {
-                System.out.println("Authorization failed - user is not the lecturer");
-                return ResponseEntity.status(403).body(Map.of(
+                log.warn("Authorization failed - user is not the lecturer");
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of(
                         "error", true,
                         "message", "You don't have permission to cancel this test"
                 ));
@@ -298,10 +344,9 @@ public class TestController {
             // Call the service method with try-catch to get detailed error
             try {
                 testService.cancelTest(testId);
-                System.out.println("Test cancelled successfully");
+                log.debug("Test cancelled successfully");
             } catch (Exception e) {
-                System.err.println("Exception in cancelTest service method: " + e.getMessage());
-                e.printStackTrace();
+                log.error("Exception in cancelTest service method", e);
                 throw e; // rethrow to be caught by outer handler
             }
 
@@ -310,8 +355,7 @@ public class TestController {
                     "message", "Test successfully cancelled"
             ));
         } catch (Exception e) {
-            System.err.println("Top-level exception in cancelTest controller: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Top-level exception in cancelTest controller", e);
             return ResponseEntity.status(500).body(Map.of(
                     "error", true,
                     "message", "Failed to cancel test: " + e.getMessage()
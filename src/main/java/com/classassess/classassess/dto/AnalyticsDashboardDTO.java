@@ -15,4 +15,6 @@ public class AnalyticsDashboardDTO {
     private List<ModulePerformanceDTO> modulePerformance;
     private List<TestActivityDTO> testActivity;
     private List<AIConfidenceDTO> aiConfidence;
+    // True when a section timed out or failed and was returned empty
+    private boolean partial;
 }
\ No newline at end of file
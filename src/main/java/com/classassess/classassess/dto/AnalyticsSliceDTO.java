@@ -0,0 +1,18 @@
+package com.classassess.classassess.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AnalyticsSliceDTO {
+    private Long key; // module, test, student or lecturer id, or year * 12 + month - 1 for months
+    private String label;
+    private Long submissions;
+    private Double avgScore;
+    private Double passingRate;
+}
@@ -0,0 +1,20 @@
+package com.classassess.classassess.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Counter changes for a lecturer's dashboard accumulated over one flush window
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DashboardDeltaDTO {
+    private int submissionsGraded;
+    private int appealsSubmitted;
+    private int appealsResolved;
+    private int enrollments;
+}
@@ -0,0 +1,21 @@
+package com.classassess.classassess.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Live view of who is taking a test, pushed to the test's lecturer
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExamPresenceDTO {
+    private Long testId;
+    private int activeTakers;
+    private List<ExamTakerDTO> takers;
+}
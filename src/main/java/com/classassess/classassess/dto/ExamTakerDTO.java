@@ -0,0 +1,24 @@
+package com.classassess.classassess.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A student who currently has a test open
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExamTakerDTO {
+    private Long studentId;
+    private String studentName;
+    private LocalDateTime openedAt;
+    private LocalDateTime lastSeen;
+    private LocalDateTime lastAutosave;
+    private long secondsRemaining;
+}
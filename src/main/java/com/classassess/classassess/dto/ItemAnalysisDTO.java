@@ -0,0 +1,35 @@
+package com.classassess.classassess.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemAnalysisDTO {
+    private Long testId;
+    private Integer gradedSubmissions;
+    private List<QuestionAnalysisDTO> questions;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class QuestionAnalysisDTO {
+        private Long questionId;
+        private String questionText;
+        private String questionType;
+        private Integer points;
+        private Integer responses;
+        private Double difficulty; // share of available points earned, 0-1 (higher is easier)
+        private Double discrimination; // top 27% minus bottom 27% by test score, -1 to 1
+        private Double averageScore; // percentage of points; the average AI score for written questions
+        private Map<String, Long> optionFrequencies; // MCQ only, by option text
+    }
+}
@@ -0,0 +1,21 @@
+package com.classassess.classassess.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScoreDistributionDTO {
+    private Long gradedCount;
+    private Double median;
+    private Double p10;
+    private Double p90;
+    private Integer binWidth;
+    private List<Long> histogram; // counts per bin from 0, the last bin including 100
+}
@@ -0,0 +1,27 @@
+package com.classassess.classassess.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Last minute a user was seen, shared across instances for the active-session count
+ */
+@Data
+@Entity
+@NoArgsConstructor
+@Table(name = "active_session", indexes = {
+        @Index(name = "idx_active_session_last_seen", columnList = "last_seen_minute")
+})
+public class ActiveSession {
+    @Id
+    @Column(name = "username")
+    private String username;
+
+    @Column(name = "role", length = 20)
+    private String role;
+
+    // Minutes since the epoch
+    @Column(name = "last_seen_minute", nullable = false)
+    private Long lastSeenMinute;
+}
@@ -0,0 +1,50 @@
+package com.classassess.classassess.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Pre-aggregated module-wide counters used by the admin and lecturer analytics dashboards
+ */
+@Data
+@Entity
+@NoArgsConstructor
+@Table(name = "module_analytics_rollup")
+public class ModuleAnalyticsRollup {
+    @Id
+    @Column(name = "module_id")
+    private Long moduleId;
+
+    @Column(name = "test_count", nullable = false)
+    private long testCount;
+
+    @Column(name = "student_count", nullable = false)
+    private long studentCount;
+
+    @Column(name = "graded_count", nullable = false)
+    private long gradedCount;
+
+    @Column(name = "passed_count", nullable = false)
+    private long passedCount;
+
+    @Column(name = "score_sum", nullable = false)
+    private double scoreSum;
+
+    @Column(name = "answer_count", nullable = false)
+    private long answerCount;
+
+    @Column(name = "answer_passed_count", nullable = false)
+    private long answerPassedCount;
+
+    @Column(name = "appeal_count", nullable = false)
+    private long appealCount;
+
+    @Column(name = "approved_appeal_count", nullable = false)
+    private long approvedAppealCount;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
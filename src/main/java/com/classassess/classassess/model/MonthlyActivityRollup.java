@@ -0,0 +1,32 @@
+package com.classassess.classassess.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Graded submissions per lecturer per month of test start, for the activity timeline
+ */
+@Data
+@Entity
+@NoArgsConstructor
+@Table(name = "monthly_activity_rollup", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_monthly_rollup_period", columnNames = {"lecturer_id", "period_year", "period_month"})
+})
+public class MonthlyActivityRollup {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "lecturer_id", nullable = false)
+    private Long lecturerId;
+
+    @Column(name = "period_year", nullable = false)
+    private int periodYear;
+
+    @Column(name = "period_month", nullable = false)
+    private int periodMonth;
+
+    @Column(name = "completed_count", nullable = false)
+    private long completedCount;
+}
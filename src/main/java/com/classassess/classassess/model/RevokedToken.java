@@ -0,0 +1,29 @@
+package com.classassess.classassess.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Denylisted token id, kept until the token would have expired
+ */
+@Data
+@Entity
+@NoArgsConstructor
+@Table(name = "revoked_token", indexes = {
+        @Index(name = "idx_revoked_token_expires", columnList = "expires_at"),
+        @Index(name = "idx_revoked_token_revoked", columnList = "revoked_at")
+})
+public class RevokedToken {
+    @Id
+    @Column(name = "token_id", length = 64)
+    private String tokenId;
+
+    // Epoch millis
+    @Column(name = "expires_at", nullable = false)
+    private Long expiresAt;
+
+    // Epoch millis on the revoking instance's clock, for incremental syncs
+    @Column(name = "revoked_at", nullable = false)
+    private Long revokedAt;
+}
@@ -0,0 +1,37 @@
+package com.classassess.classassess.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Encoded score sketch for one test's graded submissions.
+ * Updated on grading and recomputed from source when scores change.
+ */
+@Data
+@Entity
+@NoArgsConstructor
+@Table(name = "score_distribution", indexes = {
+        @Index(name = "idx_score_distribution_module", columnList = "module_id"),
+        @Index(name = "idx_score_distribution_lecturer", columnList = "lecturer_id")
+})
+public class ScoreDistribution {
+    @Id
+    @Column(name = "test_id")
+    private Long testId;
+
+    @Column(name = "module_id")
+    private Long moduleId;
+
+    @Column(name = "lecturer_id")
+    private Long lecturerId;
+
+    @Lob
+    @Column(name = "sketch", columnDefinition = "BLOB")
+    private byte[] sketch;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,40 @@
+package com.classassess.classassess.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Running totals of one student's graded submissions in one module, for the student performance pages
+ */
+@Data
+@Entity
+@NoArgsConstructor
+@Table(name = "student_module_performance", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_student_module_performance", columnNames = {"student_id", "module_id"})
+})
+public class StudentModulePerformance {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "student_id", nullable = false)
+    private Long studentId;
+
+    @Column(name = "module_id", nullable = false)
+    private Long moduleId;
+
+    @Column(name = "graded_count", nullable = false)
+    private long gradedCount;
+
+    @Column(name = "score_sum", nullable = false)
+    private double scoreSum;
+
+    @Column(name = "last_submission_id")
+    private Long lastSubmissionId;
+
+    @Column(name = "last_submitted_at")
+    private LocalDateTime lastSubmittedAt;
+}
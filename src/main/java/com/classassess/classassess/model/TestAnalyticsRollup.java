@@ -0,0 +1,54 @@
+package com.classassess.classassess.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Pre-aggregated grading and appeal counters for one test.
+ * Maintained incrementally on grading/appeals and rebuilt by the reconciliation job.
+ */
+@Data
+@Entity
+@NoArgsConstructor
+@Table(name = "test_analytics_rollup", indexes = {
+        @Index(name = "idx_test_rollup_lecturer", columnList = "lecturer_id"),
+        @Index(name = "idx_test_rollup_module", columnList = "module_id")
+})
+public class TestAnalyticsRollup {
+    @Id
+    @Column(name = "test_id")
+    private Long testId;
+
+    @Column(name = "module_id")
+    private Long moduleId;
+
+    @Column(name = "lecturer_id")
+    private Long lecturerId;
+
+    @Column(name = "graded_count", nullable = false)
+    private long gradedCount;
+
+    @Column(name = "passed_count", nullable = false)
+    private long passedCount;
+
+    @Column(name = "score_sum", nullable = false)
+    private double scoreSum;
+
+    @Column(name = "answer_count", nullable = false)
+    private long answerCount;
+
+    @Column(name = "answer_passed_count", nullable = false)
+    private long answerPassedCount;
+
+    @Column(name = "appeal_count", nullable = false)
+    private long appealCount;
+
+    @Column(name = "approved_appeal_count", nullable = false)
+    private long approvedAppealCount;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
@@ -61,6 +61,11 @@ public class User implements UserDetails {
     @Column(name = "account_status", nullable = false, columnDefinition = "VARCHAR(255) DEFAULT 'PENDING'")
     private AccountStatus accountStatus = AccountStatus.PENDING;
 
+    // Bumped to revoke every token issued before a suspension, deletion, role or password change
+    @Builder.Default
+    @Column(name = "token_version", nullable = false, columnDefinition = "INT DEFAULT 0")
+    private Integer tokenVersion = 0;
+
     // New field to track who reviewed the account
     @Column(name = "reviewed_by_id")
     private Long reviewedById;
@@ -99,6 +104,9 @@ public class User implements UserDetails {
         if (accountStatus == null) {
             accountStatus = AccountStatus.PENDING;
         }
+        if (tokenVersion == null) {
+            tokenVersion = 0;
+        }
     }
 
     @Override
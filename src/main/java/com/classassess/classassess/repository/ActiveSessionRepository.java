@@ -0,0 +1,30 @@
+package com.classassess.classassess.repository;
+
+import com.classassess.classassess.model.ActiveSession;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Repository
+public interface ActiveSessionRepository extends JpaRepository<ActiveSession, String> {
+
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO active_session (username, role, last_seen_minute) VALUES (:username, :role, :minute) " +
+            "ON DUPLICATE KEY UPDATE role = VALUES(role), " +
+            "last_seen_minute = GREATEST(last_seen_minute, VALUES(last_seen_minute))", nativeQuery = true)
+    void touch(@Param("username") String username, @Param("role") String role, @Param("minute") long minute);
+
+    @Query("SELECT a.role, COUNT(a) FROM ActiveSession a WHERE a.lastSeenMinute > :cutoff GROUP BY a.role")
+    List<Object[]> countActiveByRole(@Param("cutoff") long cutoff);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM ActiveSession a WHERE a.lastSeenMinute <= :cutoff")
+    int deleteInactive(@Param("cutoff") long cutoff);
+}
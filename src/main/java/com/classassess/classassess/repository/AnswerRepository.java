@@ -2,14 +2,29 @@ package com.classassess.classassess.repository;
 
 import com.classassess.classassess.model.Answer;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface AnswerRepository extends JpaRepository<Answer, Long> {
     List<Answer> findBySubmissionId(Long submissionId);
     
     Optional<Answer> findBySubmissionIdAndQuestionId(Long submissionId, Long questionId);
+
+    // Source totals for the analytics rollups, for one test or all tests when testId is null
+    @Query("SELECT q.test.id, COUNT(a), SUM(CASE WHEN a.score >= 0.6 THEN 1 ELSE 0 END) " +
+            "FROM Answer a JOIN a.question q " +
+            "WHERE a.score IS NOT NULL AND (:testId IS NULL OR q.test.id = :testId) " +
+            "GROUP BY q.test.id")
+    List<Object[]> getAnswerTotalsByTest(@Param("testId") Long testId);
+
+    // Answers of graded submissions for item analysis: questionId, submissionId, score, answerText
+    @Query("SELECT a.question.id, a.submission.id, a.score, a.answerText FROM Answer a " +
+            "WHERE a.submission.test.id = :testId AND a.submission.status = 'GRADED'")
+    Stream<Object[]> streamGradedAnswersByTest(@Param("testId") Long testId);
 }
\ No newline at end of file
@@ -56,4 +56,11 @@ public interface AppealRepository extends JpaRepository<Appeal, Long> {
             "WHERE ans.score IS NOT NULL " +
             "GROUP BY m.id, m.code, m.title")
     List<Object[]> getAnswerMetricsByModuleForAdmin();
+
+    // Source totals for the analytics rollups, for one test or all tests when testId is null
+    @Query("SELECT a.test.id, COUNT(a), SUM(CASE WHEN a.status = 'APPROVED' THEN 1 ELSE 0 END) " +
+            "FROM Appeal a " +
+            "WHERE (:testId IS NULL OR a.test.id = :testId) " +
+            "GROUP BY a.test.id")
+    List<Object[]> getAppealTotalsByTest(@Param("testId") Long testId);
 }
\ No newline at end of file
@@ -0,0 +1,37 @@
+package com.classassess.classassess.repository;
+
+import com.classassess.classassess.model.ModuleAnalyticsRollup;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ModuleAnalyticsRollupRepository extends JpaRepository<ModuleAnalyticsRollup, Long> {
+
+    @Modifying
+    @Query(value = "INSERT INTO module_analytics_rollup (module_id, test_count, student_count, graded_count, passed_count, score_sum, " +
+            "answer_count, answer_passed_count, appeal_count, approved_appeal_count, updated_at) " +
+            "VALUES (:moduleId, :tests, :students, :graded, :passed, :scoreSum, :answers, :answersPassed, :appeals, :approvedAppeals, NOW()) " +
+            "ON DUPLICATE KEY UPDATE test_count = test_count + :tests, student_count = student_count + :students, " +
+            "graded_count = graded_count + :graded, passed_count = passed_count + :passed, score_sum = score_sum + :scoreSum, " +
+            "answer_count = answer_count + :answers, answer_passed_count = answer_passed_count + :answersPassed, " +
+            "appeal_count = appeal_count + :appeals, approved_appeal_count = approved_appeal_count + :approvedAppeals, " +
+            "updated_at = NOW()", nativeQuery = true)
+    void applyDelta(@Param("moduleId") Long moduleId, @Param("tests") long tests, @Param("students") long students,
+                    @Param("graded") long graded, @Param("passed") long passed, @Param("scoreSum") double scoreSum,
+                    @Param("answers") long answers, @Param("answersPassed") long answersPassed,
+                    @Param("appeals") long appeals, @Param("approvedAppeals") long approvedAppeals);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM ModuleAnalyticsRollup r WHERE r.moduleId = :moduleId")
+    ModuleAnalyticsRollup findByIdForUpdate(@Param("moduleId") Long moduleId);
+
+    @Query("SELECT r, m.code, m.title FROM ModuleAnalyticsRollup r, Module m WHERE m.id = r.moduleId")
+    List<Object[]> findAllWithModule();
+}
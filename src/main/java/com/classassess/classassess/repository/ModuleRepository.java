@@ -19,13 +19,26 @@ public interface ModuleRepository extends JpaRepository<Module, Long> {
     @Query("SELECT COUNT(DISTINCT ms.student.id) FROM Module m JOIN m.moduleStudents ms WHERE m.lecturer.id = :lecturerId")
     Long countDistinctStudentsByLecturerId(@Param("lecturerId") Long lecturerId);
 
-    long countByActiveTrue();
+    @Query("SELECT m.lecturer.id, COUNT(DISTINCT ms.student.id) FROM Module m JOIN m.moduleStudents ms " +
+            "WHERE (:lecturerId IS NULL OR m.lecturer.id = :lecturerId) GROUP BY m.lecturer.id")
+    List<Object[]> countDistinctStudentsGroupedByLecturer(@Param("lecturerId") Long lecturerId);
 
-    @Query("SELECT COUNT(DISTINCT ms.student.id) FROM ModuleStudent ms WHERE ms.module.id = :moduleId")
-    Long countStudentsInModule(@Param("moduleId") Long moduleId);
+    long countByActiveTrue();
 
     @Query("SELECT ms.module.id FROM ModuleStudent ms WHERE ms.student.id = :studentId")
     List<Long> findModuleIdsByStudentId(@Param("studentId") Long studentId);
 
+    @Query("SELECT m.id FROM Module m WHERE m.lecturer.id = :lecturerId")
+    List<Long> findModuleIdsByLecturerId(@Param("lecturerId") Long lecturerId);
+
     List<Module> findByActiveTrue();
+
+    @Query("SELECT ms.module.id, COUNT(DISTINCT ms.student.id) FROM ModuleStudent ms GROUP BY ms.module.id")
+    List<Object[]> countStudentsGroupedByModule();
+
+    @Query("SELECT COUNT(DISTINCT ms.student.id) FROM ModuleStudent ms WHERE ms.module.id = :moduleId")
+    long countStudentsByModuleId(@Param("moduleId") Long moduleId);
+
+    @Query("SELECT m.id FROM Module m")
+    List<Long> findAllIds();
 }
\ No newline at end of file
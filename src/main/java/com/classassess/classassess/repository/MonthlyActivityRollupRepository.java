@@ -0,0 +1,40 @@
+package com.classassess.classassess.repository;
+
+import com.classassess.classassess.model.MonthlyActivityRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface MonthlyActivityRollupRepository extends JpaRepository<MonthlyActivityRollup, Long> {
+
+    @Modifying
+    @Query(value = "INSERT INTO monthly_activity_rollup (lecturer_id, period_year, period_month, completed_count) " +
+            "VALUES (:lecturerId, :year, :month, :completed) " +
+            "ON DUPLICATE KEY UPDATE completed_count = completed_count + :completed", nativeQuery = true)
+    void applyDelta(@Param("lecturerId") Long lecturerId, @Param("year") int year, @Param("month") int month,
+                    @Param("completed") long completed);
+
+    /**
+     * Completed and upcoming tests per month in one query, for one lecturer or everyone when lecturerId is null.
+     * Rows: bucket (year * 12 + month - 1), completed, upcoming; ordered by bucket.
+     * Completed counts come from the rollup; upcoming depends on the current time so it is read from tests.
+     */
+    @Query(value = "SELECT a.bucket, SUM(a.completed), SUM(a.upcoming) FROM (" +
+            "SELECT r.period_year * 12 + r.period_month - 1 AS bucket, r.completed_count AS completed, 0 AS upcoming " +
+            "FROM monthly_activity_rollup r WHERE (:lecturerId IS NULL OR r.lecturer_id = :lecturerId) " +
+            "UNION ALL " +
+            "SELECT YEAR(t.start_time) * 12 + MONTH(t.start_time) - 1, 0, 1 " +
+            "FROM tests t WHERE t.end_time > NOW() AND t.start_time IS NOT NULL " +
+            "AND (:lecturerId IS NULL OR t.lecturer_id = :lecturerId)" +
+            ") a " +
+            "WHERE (:fromBucket IS NULL OR a.bucket >= :fromBucket) AND (:toBucket IS NULL OR a.bucket <= :toBucket) " +
+            "GROUP BY a.bucket ORDER BY a.bucket", nativeQuery = true)
+    List<Object[]> findActivityByLecturerIdAndDateRange(@Param("lecturerId") Long lecturerId,
+                                                        @Param("fromBucket") Integer fromBucket,
+                                                        @Param("toBucket") Integer toBucket);
+}
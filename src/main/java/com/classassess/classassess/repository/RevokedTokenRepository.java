@@ -0,0 +1,32 @@
+package com.classassess.classassess.repository;
+
+import com.classassess.classassess.model.RevokedToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Repository
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, String> {
+
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT IGNORE INTO revoked_token (token_id, expires_at, revoked_at) VALUES (:tokenId, :expiresAt, :revokedAt)", nativeQuery = true)
+    void insertIgnore(@Param("tokenId") String tokenId, @Param("expiresAt") long expiresAt,
+                      @Param("revokedAt") long revokedAt);
+
+    @Query("SELECT r.tokenId, r.expiresAt FROM RevokedToken r WHERE r.expiresAt >= :now")
+    List<Object[]> findUnexpired(@Param("now") long now);
+
+    @Query("SELECT r.tokenId, r.expiresAt FROM RevokedToken r WHERE r.revokedAt > :since AND r.expiresAt >= :now")
+    List<Object[]> findRevokedSince(@Param("since") long since, @Param("now") long now);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM RevokedToken r WHERE r.expiresAt < :now")
+    int deleteExpired(@Param("now") long now);
+}
@@ -0,0 +1,28 @@
+package com.classassess.classassess.repository;
+
+import com.classassess.classassess.model.ScoreDistribution;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ScoreDistributionRepository extends JpaRepository<ScoreDistribution, Long> {
+
+    // Creates the row if missing so concurrent graders can lock it
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO score_distribution (test_id, module_id, lecturer_id, updated_at) " +
+            "VALUES (:testId, :moduleId, :lecturerId, NOW())", nativeQuery = true)
+    void ensureExists(@Param("testId") Long testId, @Param("moduleId") Long moduleId, @Param("lecturerId") Long lecturerId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT d FROM ScoreDistribution d WHERE d.testId = :testId")
+    ScoreDistribution findByIdForUpdate(@Param("testId") Long testId);
+
+    List<ScoreDistribution> findByModuleId(Long moduleId);
+}
@@ -0,0 +1,54 @@
+package com.classassess.classassess.repository;
+
+import com.classassess.classassess.model.StudentModulePerformance;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface StudentModulePerformanceRepository extends JpaRepository<StudentModulePerformance, Long> {
+
+    // The last submission id is assigned before last_submitted_at so it compares against the old value
+    @Modifying
+    @Query(value = "INSERT INTO student_module_performance (student_id, module_id, graded_count, score_sum, " +
+            "last_submission_id, last_submitted_at) " +
+            "VALUES (:studentId, :moduleId, 1, :score, :submissionId, :submittedAt) " +
+            "ON DUPLICATE KEY UPDATE graded_count = graded_count + 1, score_sum = score_sum + :score, " +
+            "last_submission_id = IF(last_submitted_at IS NULL OR :submittedAt >= last_submitted_at, :submissionId, last_submission_id), " +
+            "last_submitted_at = IF(last_submitted_at IS NULL OR :submittedAt >= last_submitted_at, :submittedAt, last_submitted_at)",
+            nativeQuery = true)
+    void addGraded(@Param("studentId") Long studentId, @Param("moduleId") Long moduleId, @Param("score") double score,
+                   @Param("submissionId") Long submissionId, @Param("submittedAt") LocalDateTime submittedAt);
+
+    @Modifying
+    @Query(value = "INSERT INTO student_module_performance (student_id, module_id, graded_count, score_sum, " +
+            "last_submission_id, last_submitted_at) " +
+            "VALUES (:studentId, :moduleId, :graded, :scoreSum, :submissionId, :submittedAt) " +
+            "ON DUPLICATE KEY UPDATE graded_count = :graded, score_sum = :scoreSum, " +
+            "last_submission_id = :submissionId, last_submitted_at = :submittedAt", nativeQuery = true)
+    void replace(@Param("studentId") Long studentId, @Param("moduleId") Long moduleId, @Param("graded") long graded,
+                 @Param("scoreSum") double scoreSum, @Param("submissionId") Long submissionId,
+                 @Param("submittedAt") LocalDateTime submittedAt);
+
+    // Takes the pair's row lock, creating an empty row first if there is none
+    @Modifying
+    @Query(value = "INSERT INTO student_module_performance (student_id, module_id, graded_count, score_sum) " +
+            "VALUES (:studentId, :moduleId, 0, 0) ON DUPLICATE KEY UPDATE graded_count = graded_count", nativeQuery = true)
+    void lockPair(@Param("studentId") Long studentId, @Param("moduleId") Long moduleId);
+
+    // Rows: moduleId, code, title, gradedCount, scoreSum, lastSubmittedAt
+    @Query("SELECT p.moduleId, m.code, m.title, p.gradedCount, p.scoreSum, p.lastSubmittedAt " +
+            "FROM StudentModulePerformance p, Module m " +
+            "WHERE m.id = p.moduleId AND p.studentId = :studentId AND p.gradedCount > 0")
+    List<Object[]> getSummaryByStudentId(@Param("studentId") Long studentId);
+
+    // Rows: total graded count, total score sum across all of a student's modules
+    @Query("SELECT COALESCE(SUM(p.gradedCount), 0), COALESCE(SUM(p.scoreSum), 0) " +
+            "FROM StudentModulePerformance p WHERE p.studentId = :studentId")
+    List<Object[]> getTotalsByStudentId(@Param("studentId") Long studentId);
+}
@@ -26,12 +26,38 @@ public interface SubmissionRepository extends JpaRepository<Submission, Long> {
     
     List<Submission> findByStudentOrderBySubmittedAtDesc(User student);
 
-    @Query("SELECT COUNT(CASE WHEN s.totalScore >= 60 THEN 1 ELSE NULL END), COUNT(s) " +
-            "FROM Submission s " +
-            "JOIN s.test t " +
-            "WHERE t.module.id = :moduleId AND s.status = 'GRADED'")
-    List<Object[]> findModulePassingRate(@Param("moduleId") Long moduleId);
-
-
     List<Submission> findByStudentIdAndTestModuleId(Long studentId, Long moduleId);
+
+    // Source totals for the analytics rollups, for one test or all tests when testId is null
+    @Query("SELECT s.test.id, COUNT(s), SUM(CASE WHEN s.totalScore >= 60 THEN 1 ELSE 0 END), COALESCE(SUM(s.totalScore), 0) " +
+            "FROM Submission s " +
+            "WHERE s.status = 'GRADED' AND (:testId IS NULL OR s.test.id = :testId) " +
+            "GROUP BY s.test.id")
+    List<Object[]> getGradedTotalsByTest(@Param("testId") Long testId);
+
+    @Query("SELECT s.test.id, s.totalScore FROM Submission s " +
+            "WHERE s.status = 'GRADED' AND (:testId IS NULL OR s.test.id = :testId)")
+    List<Object[]> getGradedScores(@Param("testId") Long testId);
+
+    // Submitted and graded counts per lecturer, for one lecturer or all when lecturerId is null
+    @Query("SELECT t.lecturer.id, s.status, COUNT(s) FROM Submission s JOIN s.test t " +
+            "WHERE t.status != 'CANCELLED' AND s.status IN ('SUBMITTED', 'GRADED') " +
+            "AND (:lecturerId IS NULL OR t.lecturer.id = :lecturerId) " +
+            "GROUP BY t.lecturer.id, s.status")
+    List<Object[]> countByLecturerAndStatus(@Param("lecturerId") Long lecturerId);
+
+    @Query("SELECT s.id, s.totalScore FROM Submission s WHERE s.status = 'GRADED' AND s.test.id = :testId")
+    List<Object[]> getGradedSubmissionScores(@Param("testId") Long testId);
+
+    // Graded results of a student in a module without loading the entities: id, testId, title, score, submittedAt
+    @Query("SELECT s.id, t.id, t.title, s.totalScore, s.submittedAt FROM Submission s JOIN s.test t " +
+            "WHERE s.status = 'GRADED' AND s.student.id = :studentId AND t.module.id = :moduleId " +
+            "ORDER BY s.submittedAt DESC")
+    List<Object[]> getGradedResults(@Param("studentId") Long studentId, @Param("moduleId") Long moduleId);
+
+    // Rows for the in-memory fact store: submission, module, test, student, lecturer, submittedAt, score
+    @Query("SELECT s.id, m.id, t.id, s.student.id, l.id, s.submittedAt, s.totalScore " +
+            "FROM Submission s JOIN s.test t LEFT JOIN t.module m LEFT JOIN t.lecturer l " +
+            "WHERE s.status = 'GRADED'")
+    List<Object[]> getGradedFacts();
 }
\ No newline at end of file
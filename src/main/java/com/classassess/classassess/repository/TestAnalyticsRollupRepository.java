@@ -0,0 +1,41 @@
+package com.classassess.classassess.repository;
+
+import com.classassess.classassess.model.TestAnalyticsRollup;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface TestAnalyticsRollupRepository extends JpaRepository<TestAnalyticsRollup, Long> {
+
+    @Modifying
+    @Query(value = "INSERT INTO test_analytics_rollup (test_id, module_id, lecturer_id, graded_count, passed_count, score_sum, " +
+            "answer_count, answer_passed_count, appeal_count, approved_appeal_count, updated_at) " +
+            "VALUES (:testId, :moduleId, :lecturerId, :graded, :passed, :scoreSum, :answers, :answersPassed, :appeals, :approvedAppeals, NOW()) " +
+            "ON DUPLICATE KEY UPDATE graded_count = graded_count + :graded, passed_count = passed_count + :passed, " +
+            "score_sum = score_sum + :scoreSum, answer_count = answer_count + :answers, " +
+            "answer_passed_count = answer_passed_count + :answersPassed, appeal_count = appeal_count + :appeals, " +
+            "approved_appeal_count = approved_appeal_count + :approvedAppeals, updated_at = NOW()", nativeQuery = true)
+    void applyDelta(@Param("testId") Long testId, @Param("moduleId") Long moduleId, @Param("lecturerId") Long lecturerId,
+                    @Param("graded") long graded, @Param("passed") long passed, @Param("scoreSum") double scoreSum,
+                    @Param("answers") long answers, @Param("answersPassed") long answersPassed,
+                    @Param("appeals") long appeals, @Param("approvedAppeals") long approvedAppeals);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM TestAnalyticsRollup r WHERE r.testId = :testId")
+    TestAnalyticsRollup findByIdForUpdate(@Param("testId") Long testId);
+
+    // Per-module totals over one lecturer's tests
+    @Query("SELECT r.moduleId, m.code, m.title, COUNT(r), SUM(r.scoreSum), SUM(r.gradedCount), " +
+            "SUM(r.answerCount), SUM(r.answerPassedCount), SUM(r.appealCount), SUM(r.approvedAppealCount) " +
+            "FROM TestAnalyticsRollup r, Module m " +
+            "WHERE m.id = r.moduleId AND r.lecturerId = :lecturerId " +
+            "GROUP BY r.moduleId, m.code, m.title")
+    List<Object[]> getModuleTotalsByLecturerId(@Param("lecturerId") Long lecturerId);
+}
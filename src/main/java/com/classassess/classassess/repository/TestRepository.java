@@ -5,7 +5,6 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
-import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -21,11 +20,10 @@ public interface TestRepository extends JpaRepository<Test, Long> {
     @Query("SELECT t FROM Test t WHERE t.endTime >= CURRENT_TIMESTAMP AND t.status = 'ACTIVE'")
     List<Test> findActiveTests();
 
-    // New queries for analytics
-    @Query("SELECT t FROM Test t WHERE t.lecturer.id = :lecturerId AND t.startTime BETWEEN :startDate AND :endDate")
-    List<Test> findByLecturerIdAndDateRange(@Param("lecturerId") Long lecturerId,
-                                            @Param("startDate") LocalDateTime startDate,
-                                            @Param("endDate") LocalDateTime endDate);
+    // Tests that haven't ended per lecturer, for one lecturer or all when lecturerId is null
+    @Query("SELECT t.lecturer.id, COUNT(t) FROM Test t WHERE t.status != 'CANCELLED' AND t.endTime > CURRENT_TIMESTAMP " +
+            "AND (:lecturerId IS NULL OR t.lecturer.id = :lecturerId) GROUP BY t.lecturer.id")
+    List<Object[]> countActiveTestsByLecturer(@Param("lecturerId") Long lecturerId);
 
     @Query("SELECT COUNT(t) FROM Test t WHERE t.lecturer.id = :lecturerId AND t.startTime > CURRENT_TIMESTAMP")
     Integer countUpcomingTestsByLecturerId(@Param("lecturerId") Long lecturerId);
@@ -40,21 +38,6 @@ public interface TestRepository extends JpaRepository<Test, Long> {
             "GROUP BY t.module.id, t.module.code, t.module.title")
     List<Object[]> getModulePerformanceByLecturerId(@Param("lecturerId") Long lecturerId);
 
-    @Query(value = "SELECT YEAR(t.start_time) as year, MONTH(t.start_time) as month, " +
-            "s.status, COUNT(*) as count " +
-            "FROM tests t LEFT JOIN submissions s ON s.test_id = t.id " +
-            "WHERE t.lecturer_id = :lecturerId " +
-            "GROUP BY YEAR(t.start_time), MONTH(t.start_time), s.status", nativeQuery = true)
-    List<Object[]> getTestActivityRawData(@Param("lecturerId") Long lecturerId);
-
-    @Query(value = "SELECT YEAR(t.start_time) as year, MONTH(t.start_time) as month, " +
-            "COUNT(t.id) as count " +
-            "FROM tests t " +
-            "WHERE t.lecturer_id = :lecturerId " +
-            "AND t.end_time > NOW() " +
-            "GROUP BY YEAR(t.start_time), MONTH(t.start_time)", nativeQuery = true)
-    List<Object[]> getUpcomingTestsByMonth(@Param("lecturerId") Long lecturerId);
-
     @Query("SELECT m.id as moduleId, m.code as moduleCode, m.title as moduleTitle, " +
             "COUNT(DISTINCT t) as testCount, AVG(s.totalScore) as avgScore " +
             "FROM Test t LEFT JOIN Submission s ON s.test = t " +
@@ -62,16 +45,11 @@ public interface TestRepository extends JpaRepository<Test, Long> {
             "GROUP BY m.id, m.code, m.title")
     List<Object[]> getModulePerformanceForAdmin();
 
-    @Query(value = "SELECT YEAR(t.start_time) as year, MONTH(t.start_time) as month, " +
-            "s.status, COUNT(*) as count " +
-            "FROM tests t LEFT JOIN submissions s ON s.test_id = t.id " +
-            "GROUP BY YEAR(t.start_time), MONTH(t.start_time), s.status", nativeQuery = true)
-    List<Object[]> getTestActivityRawDataForAdmin();
+    @Query("SELECT COUNT(t) FROM Test t WHERE t.module.id = :moduleId")
+    long countByModuleId(@Param("moduleId") Long moduleId);
 
-    @Query(value = "SELECT YEAR(t.start_time) as year, MONTH(t.start_time) as month, " +
-            "COUNT(t.id) as count " +
-            "FROM tests t " +
-            "WHERE t.end_time > NOW() " +
-            "GROUP BY YEAR(t.start_time), MONTH(t.start_time)", nativeQuery = true)
-    List<Object[]> getUpcomingTestsByMonthForAdmin();
+    // Keys the analytics rollups are grouped by, for one test or all tests when testId is null
+    @Query("SELECT t.id, m.id, l.id, t.startTime FROM Test t LEFT JOIN t.module m LEFT JOIN t.lecturer l " +
+            "WHERE (:testId IS NULL OR t.id = :testId)")
+    List<Object[]> getRollupKeys(@Param("testId") Long testId);
 }
\ No newline at end of file
@@ -3,12 +3,27 @@ package com.classassess.classassess.repository;
 import com.classassess.classassess.model.User;
 import com.classassess.classassess.model.Role;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
+
+    @Query("SELECT u.tokenVersion FROM User u WHERE u.id = :id")
+    Optional<Integer> findTokenVersionById(@Param("id") Long id);
+
+    // Only the hash, and only if it is still the one that was verified, so a login-time rehash
+    // can't overwrite concurrent edits to the user or a password changed in the meantime
+    @Modifying
+    @Transactional
+    @Query("UPDATE User u SET u.passwordHash = :passwordHash WHERE u.id = :id AND u.passwordHash = :expectedHash")
+    int updatePasswordHash(@Param("id") Long id, @Param("expectedHash") String expectedHash,
+                           @Param("passwordHash") String passwordHash);
     boolean existsByEmail(String email);
     List<User> findByRole(Role role);
 
@@ -0,0 +1,74 @@
+package com.classassess.classassess.security;
+
+import com.classassess.classassess.model.Role;
+import com.classassess.classassess.model.User;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Immutable snapshot of a user, used as the principal of JWT-authenticated requests.
+ * Safe to cache and share between requests; code that needs the managed entity loads it
+ * through {@code UserService.getCurrentUser()}.
+ */
+public record AuthenticatedUser(Long id, String email, Role role, User.AccountStatus accountStatus,
+                                boolean enabled, boolean accountNonLocked, Integer tokenVersion)
+        implements UserDetails {
+
+    public static AuthenticatedUser from(User user) {
+        return new AuthenticatedUser(user.getId(), user.getEmail(), user.getRole(), user.getAccountStatus(),
+                user.isEnabled(), user.isAccountNonLocked(), user.getTokenVersion());
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    /**
+     * Whether the account may still make requests: enabled, not locked and approved
+     */
+    public boolean isActive() {
+        return enabled && accountNonLocked && accountStatus == User.AccountStatus.APPROVED;
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return List.of(new SimpleGrantedAuthority("ROLE_" + role.name()));
+    }
+
+    /**
+     * Requests are authenticated by token, so the password hash is never kept here
+     */
+    @Override
+    public String getPassword() {
+        return null;
+    }
+
+    @Override
+    public String getUsername() {
+        return email;
+    }
+
+    @Override
+    public boolean isAccountNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isAccountNonLocked() {
+        return accountNonLocked;
+    }
+
+    @Override
+    public boolean isCredentialsNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+}
@@ -1,7 +1,10 @@
 package com.classassess.classassess.security;
 
+import com.classassess.classassess.model.User;
 import com.classassess.classassess.service.SessionService;
+import com.classassess.classassess.service.TokenVersionService;
 import com.classassess.classassess.service.UserService;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -9,13 +12,16 @@ import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Collection;
+import java.util.List;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
@@ -29,6 +35,9 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     @Autowired
     private SessionService sessionService;
 
+    @Autowired
+    private TokenVersionService tokenVersionService;
+
     @Override
     protected void doFilterInternal(
             @NonNull HttpServletRequest request,
@@ -36,26 +45,41 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             @NonNull FilterChain filterChain
     ) throws ServletException, IOException {
         final String authHeader = request.getHeader("Authorization");
-        final String jwt;
-        final String userEmail;
+        final ValidatedToken token;
 
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
             filterChain.doFilter(request, response);
             return;
         }
 
-        jwt = authHeader.substring(7);
-        userEmail = jwtService.extractUsername(jwt);
-        sessionService.recordSession(authHeader);
+        // One parse verifies the signature and expiry; everything below reuses the claims
+        try {
+            token = jwtService.parse(authHeader.substring(7));
+        } catch (JwtException | IllegalArgumentException e) {
+            // Leave the request unauthenticated so secured endpoints reject it
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        // Reset links, tokens signed before suspension and logged-out tokens are rejected from the claims alone
+        if (!token.isAccessToken() || isBlockedStatus(token.getAccountStatus()) || sessionService.isRevoked(token)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        final String userEmail = token.getUsername();
+        sessionService.recordSession(token);
 
         if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = userService.loadUserByUsername(userEmail);
+            AuthenticatedUser userDetails = userService.loadAuthenticatedUser(userEmail);
 
-            if (jwtService.isTokenValid(jwt, userDetails)) {
+            // The snapshot catches suspension, deletion and revocation made after the token was issued
+            if (jwtService.isTokenValid(token, userDetails) && userDetails.isActive()
+                    && tokenVersionService.isCurrent(token, userDetails.tokenVersion())) {
                 UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                         userDetails,
                         null,
-                        userDetails.getAuthorities()
+                        authoritiesFor(token, userDetails)
                 );
 
                 authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
@@ -65,4 +89,18 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         filterChain.doFilter(request, response);
     }
+
+    private boolean isBlockedStatus(String accountStatus) {
+        return accountStatus != null && !User.AccountStatus.APPROVED.name().equals(accountStatus);
+    }
+
+    /**
+     * Authorities from the signed role claim; tokens issued before the claim existed fall back to the user
+     */
+    private Collection<? extends GrantedAuthority> authoritiesFor(ValidatedToken token, AuthenticatedUser userDetails) {
+        if (token.getRole() == null) {
+            return userDetails.getAuthorities();
+        }
+        return List.of(new SimpleGrantedAuthority("ROLE_" + token.getRole()));
+    }
 }
\ No newline at end of file
@@ -0,0 +1,75 @@
+package com.classassess.classassess.security;
+
+import com.classassess.classassess.model.User;
+import com.classassess.classassess.service.SessionService;
+import com.classassess.classassess.service.TokenVersionService;
+import com.classassess.classassess.service.UserService;
+import com.classassess.classassess.service.WebSocketSessionRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessagingException;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Authenticates the STOMP CONNECT frame with the JWT from the Authorization header.
+ * The token is only checked once per connection; later frames reuse the bound principal.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class JwtChannelInterceptor implements ChannelInterceptor {
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final JwtService jwtService;
+    private final UserService userService;
+    private final WebSocketSessionRegistry webSocketSessionRegistry;
+    private final TokenVersionService tokenVersionService;
+    private final SessionService sessionService;
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null || !StompCommand.CONNECT.equals(accessor.getCommand())) {
+            return message;
+        }
+
+        String authHeader = accessor.getFirstNativeHeader("Authorization");
+        if (authHeader == null || !authHeader.startsWith(BEARER_PREFIX)) {
+            throw new MessagingException("Missing bearer token on STOMP CONNECT");
+        }
+
+        StompPrincipal principal = authenticate(authHeader.substring(BEARER_PREFIX.length()));
+        accessor.setUser(principal);
+        webSocketSessionRegistry.register(accessor.getSessionId(), principal);
+        return message;
+    }
+
+    private StompPrincipal authenticate(String jwt) {
+        try {
+            ValidatedToken token = jwtService.parse(jwt);
+            if (!token.isAccessToken() || sessionService.isRevoked(token)) {
+                throw new MessagingException("Revoked token on STOMP CONNECT");
+            }
+            User user = (User) userService.loadUserByUsername(token.getUsername());
+            if (!tokenVersionService.isCurrent(token, user.getTokenVersion())) {
+                throw new MessagingException("Revoked token on STOMP CONNECT");
+            }
+            if (!jwtService.isTokenValid(token, user) || !AuthenticatedUser.from(user).isActive()) {
+                throw new MessagingException("Invalid token on STOMP CONNECT");
+            }
+            return new StompPrincipal(user.getId(), user.getEmail(), user.getRole());
+        } catch (MessagingException e) {
+            throw e;
+        } catch (Exception e) {
+            log.debug("Rejected STOMP CONNECT: {}", e.getMessage());
+            throw new MessagingException("Invalid token on STOMP CONNECT", e);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.classassess.classassess.security;
 
+import com.classassess.classassess.model.User;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
@@ -12,11 +13,21 @@ import java.security.Key;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
 import java.util.function.Function;
 
 @Service
 public class JwtService {
 
+    public static final String CLAIM_USER_ID = "uid";
+    public static final String CLAIM_ROLE = "role";
+    public static final String CLAIM_ACCOUNT_STATUS = "status";
+    public static final String CLAIM_TOKEN_VERSION = "ver";
+    public static final String CLAIM_TYPE = "typ";
+
+    // Marks single-purpose tokens so they can never be used as bearer tokens
+    public static final String TYPE_PASSWORD_RESET = "password_reset";
+
     @Value("${jwt.secret}")
     private String secretKey;
 
@@ -25,20 +36,36 @@ public class JwtService {
 
     private Key key;
 
+    // Immutable and thread-safe, so one instance is shared by every request
+    private JwtParser parser;
+
     @PostConstruct
     public void init() {
         byte[] keyBytes = Decoders.BASE64.decode(secretKey);
         this.key = Keys.hmacShaKeyFor(keyBytes);
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(key)
+                .build();
     }
 
     public String generateToken(UserDetails userDetails) {
-        return generateToken(new HashMap<>(), userDetails);
+        Map<String, Object> claims = new HashMap<>();
+        if (userDetails instanceof User user) {
+            // Lets requests be authorised and revocation checked without loading the user
+            claims.put(CLAIM_USER_ID, user.getId());
+            claims.put(CLAIM_ROLE, user.getRole().name());
+            claims.put(CLAIM_ACCOUNT_STATUS, user.getAccountStatus().name());
+            claims.put(CLAIM_TOKEN_VERSION, user.getTokenVersion() != null ? user.getTokenVersion() : 0);
+        }
+        return generateToken(claims, userDetails);
     }
 
     public String generateToken(Map<String, Object> extraClaims, UserDetails userDetails) {
         return Jwts.builder()
                 .setClaims(extraClaims)
                 .setSubject(userDetails.getUsername())
+                // Unique id so a single token can be denylisted on logout
+                .setId(UUID.randomUUID().toString())
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + jwtExpiration))
                 .signWith(key, SignatureAlgorithm.HS256)
@@ -55,11 +82,16 @@ public class JwtService {
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return parser.parseClaimsJws(token).getBody();
+    }
+
+    /**
+     * Verify the signature and expiry once and keep the claims for the rest of the request
+     *
+     * @throws JwtException if the token is malformed, tampered with or expired
+     */
+    public ValidatedToken parse(String token) {
+        return new ValidatedToken(token, extractAllClaims(token));
     }
 
     public boolean isTokenValid(String token, UserDetails userDetails) {
@@ -67,6 +99,10 @@ public class JwtService {
         return (username.equals(userDetails.getUsername())) && !isTokenExpired(token);
     }
 
+    public boolean isTokenValid(ValidatedToken token, UserDetails userDetails) {
+        return userDetails.getUsername().equals(token.getUsername()) && !token.isExpired();
+    }
+
     private boolean isTokenExpired(String token) {
         return extractExpiration(token).before(new Date());
     }
@@ -80,6 +116,7 @@ public class JwtService {
 
     public String generatePasswordResetToken(UserDetails userDetails) {
         return Jwts.builder()
+                .claim(CLAIM_TYPE, TYPE_PASSWORD_RESET)
                 .setSubject(userDetails.getUsername())
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + resetTokenExpiration))
@@ -89,7 +126,7 @@ public class JwtService {
 
     public boolean validateToken(String token) {
         try {
-            Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token);
+            parser.parseClaimsJws(token);
             return true;
         } catch (Exception e) {
             return false;
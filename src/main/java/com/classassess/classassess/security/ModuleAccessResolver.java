@@ -0,0 +1,98 @@
+package com.classassess.classassess.security;
+
+import com.classassess.classassess.repository.ModuleRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Answers "does this user teach / study this module" from per-user sets of module ids,
+ * kept as sorted long arrays. Loaded on first use and evicted when enrollments, module
+ * lecturers or status, or the user's role change; the TTL bounds staleness otherwise.
+ */
+@Component
+public class ModuleAccessResolver {
+
+    private final ModuleRepository moduleRepository;
+    private final ConcurrentHashMap<Long, Entry> entries = new ConcurrentHashMap<>();
+    private final long ttlMs;
+
+    public ModuleAccessResolver(ModuleRepository moduleRepository,
+                                @Value("${app.security.module-access.ttl-ms:300000}") long ttlMs) {
+        this.moduleRepository = moduleRepository;
+        this.ttlMs = ttlMs;
+    }
+
+    private record Entry(long[] taught, long[] enrolled, long expiresAt) {
+    }
+
+    public boolean teaches(Long userId, Long moduleId) {
+        return userId != null && moduleId != null && Arrays.binarySearch(entry(userId).taught(), moduleId) >= 0;
+    }
+
+    public boolean isEnrolled(Long userId, Long moduleId) {
+        return userId != null && moduleId != null && Arrays.binarySearch(entry(userId).enrolled(), moduleId) >= 0;
+    }
+
+    public long[] getEnrolledModuleIds(Long userId) {
+        return entry(userId).enrolled().clone();
+    }
+
+    /**
+     * Drop one user now and again once the surrounding transaction commits
+     */
+    public void invalidate(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        entries.remove(userId);
+        afterCommit(() -> entries.remove(userId));
+    }
+
+    /**
+     * Drop every user, for changes that affect many users such as a module's lecturer or status
+     */
+    public void invalidateAll() {
+        entries.clear();
+        afterCommit(entries::clear);
+    }
+
+    private Entry entry(Long userId) {
+        long now = System.currentTimeMillis();
+        Entry entry = entries.get(userId);
+        if (entry != null && entry.expiresAt() > now) {
+            return entry;
+        }
+        Entry loaded = new Entry(
+                toSortedArray(moduleRepository.findModuleIdsByLecturerId(userId)),
+                toSortedArray(moduleRepository.findModuleIdsByStudentId(userId)),
+                now + ttlMs);
+        entries.put(userId, loaded);
+        return loaded;
+    }
+
+    private static long[] toSortedArray(List<Long> ids) {
+        long[] array = new long[ids.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = ids.get(i);
+        }
+        Arrays.sort(array);
+        return array;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.classassess.classassess.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Short-lived cache of authenticated user snapshots by email, so the JWT filter doesn't
+ * load the user from the database on every request.
+ * Entries expire after the TTL and are evicted explicitly whenever a user's
+ * password, role, status or deletion flag changes. Each invalidation bumps the email's
+ * generation, and a load only caches its result if the generation it started under is
+ * still current, so a load racing an invalidation can't put the old row back.
+ */
+@Component
+public class PrincipalCache {
+
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    // Only updated inside entries.compute for the same email, so checks against it are atomic with the put
+    private final ConcurrentHashMap<String, Long> generations = new ConcurrentHashMap<>();
+    private final long ttlMs;
+    private final int maxSize;
+
+    public PrincipalCache(@Value("${app.security.principal-cache.ttl-ms:60000}") long ttlMs,
+                          @Value("${app.security.principal-cache.max-size:10000}") int maxSize) {
+        this.ttlMs = ttlMs;
+        this.maxSize = maxSize;
+    }
+
+    private record Entry(AuthenticatedUser user, long expiresAt) {
+    }
+
+    public AuthenticatedUser get(String email, Function<String, AuthenticatedUser> loader) {
+        long now = System.currentTimeMillis();
+        Entry entry = entries.get(email);
+        if (entry != null && entry.expiresAt() > now) {
+            return entry.user();
+        }
+
+        // Read the generation before loading so an invalidation during the load wins
+        long generation = generations.getOrDefault(email, 0L);
+        AuthenticatedUser user = loader.apply(email);
+        if (entries.size() >= maxSize) {
+            evict(now);
+        }
+        Entry loaded = new Entry(user, now + ttlMs);
+        entries.compute(email, (key, current) ->
+                generations.getOrDefault(key, 0L) == generation ? loaded : current);
+        return user;
+    }
+
+    /**
+     * Drop a user now and again once the surrounding transaction commits,
+     * so a request racing the update can't re-cache the old row
+     */
+    public void invalidate(String email) {
+        if (email == null) {
+            return;
+        }
+        bump(email);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    bump(email);
+                }
+            });
+        }
+    }
+
+    private void bump(String email) {
+        entries.compute(email, (key, current) -> {
+            generations.merge(key, 1L, Long::sum);
+            return null;
+        });
+    }
+
+    private void evict(long now) {
+        entries.values().removeIf(entry -> entry.expiresAt() <= now);
+
+        // Still full of live entries: drop the ones closest to expiring
+        int excess = entries.size() - maxSize + 1;
+        if (excess > 0) {
+            entries.entrySet().stream()
+                    .sorted(Comparator.comparingLong(e -> e.getValue().expiresAt()))
+                    .limit(excess)
+                    .map(Map.Entry::getKey)
+                    .toList()
+                    .forEach(entries::remove);
+        }
+    }
+}
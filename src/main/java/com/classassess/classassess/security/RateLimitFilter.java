@@ -0,0 +1,164 @@
+package com.classassess.classassess.security;
+
+import com.classassess.classassess.config.ConcurrencyLimitedDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Token-bucket rate limiting per caller and endpoint class, plus load shedding of the lower
+ * priority classes while requests are queueing for database connections. Runs after JWT
+ * authentication so authenticated callers are limited per user rather than per address.
+ */
+@Component
+@Slf4j
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    @Autowired
+    private Environment environment;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Value("${app.ratelimit.enabled:true}")
+    private boolean enabled;
+
+    // Threads waiting for a connection before dashboards and analytics are shed
+    @Value("${app.ratelimit.shed.pending-connections:5}")
+    private int shedPendingConnections;
+
+    private final Map<RequestPriority, Integer> capacities = new EnumMap<>(RequestPriority.class);
+    private final Map<RequestPriority, Double> refillRates = new EnumMap<>(RequestPriority.class);
+    private final ConcurrentHashMap<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+
+    private HikariPoolMXBean pool;
+
+    @PostConstruct
+    public void init() {
+        for (RequestPriority priority : RequestPriority.values()) {
+            String prefix = "app.ratelimit." + priority.propertyKey();
+            capacities.put(priority, environment.getProperty(
+                    prefix + ".capacity", Integer.class, priority.getDefaultCapacity()));
+            refillRates.put(priority, environment.getProperty(
+                    prefix + ".refill-per-second", Double.class, priority.getDefaultRefillPerSecond()));
+        }
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+        if (!enabled || "OPTIONS".equals(request.getMethod())) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        RequestPriority priority = RequestPriority.classify(request.getMethod(), request.getRequestURI());
+
+        if (priority.isSheddable() && isDatabaseSaturated(priority)) {
+            reject(response, 5, "Server is busy, please try again shortly");
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        TokenBucket bucket = buckets.computeIfAbsent(callerKey(request) + "|" + priority,
+                key -> new TokenBucket(capacities.get(priority), refillRates.get(priority), now));
+        if (!bucket.tryConsume(now)) {
+            reject(response, bucket.secondsUntilNextToken(), "Too many requests, please slow down");
+            return;
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    /**
+     * Drop buckets that have refilled completely; they'd be recreated in the same state
+     */
+    @Scheduled(fixedDelay = 60 * 1000)
+    public void purgeIdleBuckets() {
+        long now = System.currentTimeMillis();
+        buckets.values().removeIf(bucket -> bucket.isIdle(now));
+    }
+
+    /**
+     * Analytics is shed at the threshold, dashboards at twice and everything else sheddable at three times it
+     */
+    private boolean isDatabaseSaturated(RequestPriority priority) {
+        int waiting = connectionWaiters();
+        int threshold = switch (priority) {
+            case ANALYTICS -> shedPendingConnections;
+            case DASHBOARD -> shedPendingConnections * 2;
+            default -> shedPendingConnections * 3;
+        };
+        return waiting >= threshold;
+    }
+
+    /**
+     * Requests waiting for a connection, in the virtual thread limiter's queue as well as in the pool
+     */
+    private int connectionWaiters() {
+        int waiting = 0;
+        if (dataSource instanceof ConcurrencyLimitedDataSource limiter) {
+            waiting += limiter.getQueueLength();
+        }
+        HikariPoolMXBean poolBean = poolBean();
+        if (poolBean != null) {
+            waiting += poolBean.getThreadsAwaitingConnection();
+        }
+        return waiting;
+    }
+
+    private HikariPoolMXBean poolBean() {
+        if (pool == null) {
+            try {
+                if (dataSource.isWrapperFor(HikariDataSource.class)) {
+                    // Null until the pool has started
+                    pool = dataSource.unwrap(HikariDataSource.class).getHikariPoolMXBean();
+                }
+            } catch (Exception e) {
+                log.debug("Connection pool metrics unavailable: {}", e.getMessage());
+            }
+        }
+        return pool;
+    }
+
+    private String callerKey(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof AuthenticatedUser user) {
+            return "u:" + user.getId();
+        }
+        // The client address once server.forward-headers-strategy has applied X-Forwarded-For from a trusted proxy
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    private void reject(HttpServletResponse response, long retryAfterSeconds, String message) throws IOException {
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader("Retry-After", String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{\"message\":\"" + message + "\"}");
+    }
+}
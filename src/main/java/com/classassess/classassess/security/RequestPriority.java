@@ -0,0 +1,76 @@
+package com.classassess.classassess.security;
+
+import org.springframework.http.HttpMethod;
+
+import java.util.regex.Pattern;
+
+/**
+ * Endpoint classes for rate limiting, highest priority first. Lower classes are shed first
+ * when the database is overloaded; submissions, exam-taking requests and sign-in are never shed.
+ */
+public enum RequestPriority {
+    SUBMIT(10, 1.0, false),
+    // Autosaves plus the reads a student needs to open and resume a test
+    AUTOSAVE(20, 2.0, false),
+    // Keyed per address before sign-in, so sized for a classroom behind one NAT; failed logins are throttled separately
+    AUTH(200, 5.0, false),
+    // Everything else, reads and writes
+    DEFAULT(100, 20.0, true),
+    DASHBOARD(30, 1.0, true),
+    ANALYTICS(10, 0.5, true);
+
+    private static final Pattern SUBMIT_PATH = Pattern.compile("^/api/tests/\\d+/submit$");
+    private static final Pattern PROGRESS_PATH = Pattern.compile("^/api/tests/\\d+/progress$");
+    private static final Pattern EXAM_READ_PATH =
+            Pattern.compile("^/api/tests/(student/\\d+|\\d+/progress|\\d+/questions)$");
+
+    private final int defaultCapacity;
+    private final double defaultRefillPerSecond;
+    private final boolean sheddable;
+
+    RequestPriority(int defaultCapacity, double defaultRefillPerSecond, boolean sheddable) {
+        this.defaultCapacity = defaultCapacity;
+        this.defaultRefillPerSecond = defaultRefillPerSecond;
+        this.sheddable = sheddable;
+    }
+
+    public int getDefaultCapacity() {
+        return defaultCapacity;
+    }
+
+    public double getDefaultRefillPerSecond() {
+        return defaultRefillPerSecond;
+    }
+
+    public boolean isSheddable() {
+        return sheddable;
+    }
+
+    public String propertyKey() {
+        return name().toLowerCase();
+    }
+
+    public static RequestPriority classify(String method, String path) {
+        if (path.startsWith("/api/auth/")) {
+            return AUTH;
+        }
+        if (HttpMethod.GET.matches(method) && EXAM_READ_PATH.matcher(path).matches()) {
+            return AUTOSAVE;
+        }
+        if (HttpMethod.POST.matches(method)) {
+            if (SUBMIT_PATH.matcher(path).matches()) {
+                return SUBMIT;
+            }
+            if (PROGRESS_PATH.matcher(path).matches()) {
+                return AUTOSAVE;
+            }
+        }
+        if (path.contains("/analytics") || path.endsWith("/item-analysis") || path.endsWith("/score-distribution")) {
+            return ANALYTICS;
+        }
+        if (path.contains("/stats") || path.contains("/dashboard") || path.startsWith("/api/submissions/performance")) {
+            return DASHBOARD;
+        }
+        return DEFAULT;
+    }
+}
@@ -0,0 +1,25 @@
+package com.classassess.classassess.security;
+
+import com.classassess.classassess.model.Role;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.security.Principal;
+
+/**
+ * Principal bound to an authenticated STOMP session. The name is the user id so
+ * convertAndSendToUser(userId.toString(), ...) resolves to this session.
+ */
+@Getter
+@RequiredArgsConstructor
+public class StompPrincipal implements Principal {
+
+    private final Long userId;
+    private final String email;
+    private final Role role;
+
+    @Override
+    public String getName() {
+        return userId.toString();
+    }
+}
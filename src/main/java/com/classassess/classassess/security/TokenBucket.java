@@ -0,0 +1,48 @@
+package com.classassess.classassess.security;
+
+/**
+ * Classic token bucket: holds up to {@code capacity} tokens and refills continuously
+ */
+class TokenBucket {
+    private final int capacity;
+    private final double refillPerMilli;
+
+    private double tokens;
+    private long lastRefill;
+
+    TokenBucket(int capacity, double refillPerSecond, long nowMillis) {
+        this.capacity = capacity;
+        this.refillPerMilli = refillPerSecond / 1000.0;
+        this.tokens = capacity;
+        this.lastRefill = nowMillis;
+    }
+
+    synchronized boolean tryConsume(long nowMillis) {
+        refill(nowMillis);
+        if (tokens >= 1) {
+            tokens -= 1;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Seconds until the next token is available, at least one
+     */
+    synchronized long secondsUntilNextToken() {
+        double missing = 1 - tokens;
+        return Math.max(1, (long) Math.ceil(missing / refillPerMilli / 1000.0));
+    }
+
+    synchronized boolean isIdle(long nowMillis) {
+        refill(nowMillis);
+        return tokens >= capacity;
+    }
+
+    private void refill(long nowMillis) {
+        if (nowMillis > lastRefill) {
+            tokens = Math.min(capacity, tokens + (nowMillis - lastRefill) * refillPerMilli);
+            lastRefill = nowMillis;
+        }
+    }
+}
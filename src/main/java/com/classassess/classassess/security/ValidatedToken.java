@@ -0,0 +1,53 @@
+package com.classassess.classassess.security;
+
+import io.jsonwebtoken.Claims;
+
+import java.util.Date;
+
+/**
+ * A JWT whose signature and expiry have already been checked, with its parsed claims.
+ * Produced once per request by {@link JwtService#parse(String)} and passed along instead of the raw token.
+ */
+public record ValidatedToken(String token, Claims claims) {
+
+    public String getUsername() {
+        return claims.getSubject();
+    }
+
+    public String getTokenId() {
+        return claims.getId();
+    }
+
+    public Long getUserId() {
+        Number userId = claims.get(JwtService.CLAIM_USER_ID, Number.class);
+        return userId != null ? userId.longValue() : null;
+    }
+
+    public String getRole() {
+        return claims.get(JwtService.CLAIM_ROLE, String.class);
+    }
+
+    public String getAccountStatus() {
+        return claims.get(JwtService.CLAIM_ACCOUNT_STATUS, String.class);
+    }
+
+    public Integer getTokenVersion() {
+        Number version = claims.get(JwtService.CLAIM_TOKEN_VERSION, Number.class);
+        return version != null ? version.intValue() : null;
+    }
+
+    /**
+     * Access tokens carry no type; password reset and other single-purpose tokens do
+     */
+    public boolean isAccessToken() {
+        return claims.get(JwtService.CLAIM_TYPE) == null;
+    }
+
+    public Date getExpiration() {
+        return claims.getExpiration();
+    }
+
+    public boolean isExpired() {
+        return claims.getExpiration() != null && claims.getExpiration().before(new Date());
+    }
+}
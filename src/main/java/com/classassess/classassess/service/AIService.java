@@ -11,8 +11,10 @@ import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 
 import java.util.*;
+import lombok.extern.slf4j.Slf4j;
 
 @Service
+@Slf4j
 public class AIService {
 
     @Value("${openai.api.key}")
@@ -70,11 +72,11 @@ public class AIService {
                     }
                 }
             } catch (Exception e) {
-                System.err.println("Error calling OpenAI API: " + e.getMessage());
+                log.error("Error calling OpenAI API: {}", e.getMessage());
                 // Fall back to sample questions if API call fails
             }
         } catch (Exception e) {
-            System.err.println("Error in AI question generation: " + e.getMessage());
+            log.error("Error in AI question generation: {}", e.getMessage());
         }
 
         // Fallback: Return sample questions if the API call fails
@@ -242,7 +244,7 @@ public class AIService {
                     }
                 }
             } catch (Exception e) {
-                System.err.println("Error calling OpenAI API for evaluation without reference answer: " + e.getMessage());
+                log.error("Error calling OpenAI API for evaluation without reference answer: {}", e.getMessage());
                 // Fall back to basic scoring if AI evaluation fails
                 return Map.of(
                         "score", Math.min(50.0, calculateImprovedSimilarity(answer, question) / 2),
@@ -301,11 +303,11 @@ public class AIService {
                     }
                 }
             } catch (Exception e) {
-                System.err.println("Error calling OpenAI API for evaluation: " + e.getMessage());
+                log.error("Error calling OpenAI API for evaluation: {}", e.getMessage());
                 // Fall back to algorithmic scoring if API call fails
             }
         } catch (Exception e) {
-            System.err.println("Error in AI evaluation: " + e.getMessage());
+            log.error("Error in AI evaluation: {}", e.getMessage());
         }
 
         // Fallback to algorithmic scoring method
@@ -351,7 +353,7 @@ public class AIService {
                 return 55.0;
             }
         } catch (Exception e) {
-            System.err.println("Error extracting score: " + e.getMessage());
+            log.warn("Error extracting score: {}", e.getMessage());
         }
 
         // Default to algorithmic scoring if extraction fails
@@ -371,7 +373,7 @@ public class AIService {
 
             return feedback;
         } catch (Exception e) {
-            System.err.println("Error extracting feedback: " + e.getMessage());
+            log.warn("Error extracting feedback: {}", e.getMessage());
         }
 
         // Return the content as is if extraction fails
@@ -0,0 +1,97 @@
+package com.classassess.classassess.service;
+
+import com.classassess.classassess.dto.AnalyticsDashboardDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Builds an analytics dashboard by running its independent sections concurrently.
+ * A section that fails, exceeds the timeout or can't be scheduled comes back empty and the dashboard is marked partial.
+ * Each section runs in a read-only transaction with the same timeout, so the JDBC query itself is cancelled too.
+ */
+@Service
+@Slf4j
+public class AnalyticsAssembler {
+
+    private final AnalyticsRollupService analyticsRollupService;
+    private final AsyncTaskExecutor analyticsQueryExecutor;
+    private final TransactionTemplate sectionTransaction;
+    private final long queryTimeoutMillis;
+
+    public AnalyticsAssembler(AnalyticsRollupService analyticsRollupService,
+                              @Qualifier("analyticsQueryExecutor") AsyncTaskExecutor analyticsQueryExecutor,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${app.analytics.query-timeout-ms:5000}") long queryTimeoutMillis) {
+        this.analyticsRollupService = analyticsRollupService;
+        this.analyticsQueryExecutor = analyticsQueryExecutor;
+        this.queryTimeoutMillis = queryTimeoutMillis;
+
+        // Transaction timeouts are whole seconds; JPA applies the remaining time as the statement timeout
+        this.sectionTransaction = new TransactionTemplate(transactionManager);
+        sectionTransaction.setReadOnly(true);
+        sectionTransaction.setTimeout((int) Math.max(1, (queryTimeoutMillis + 999) / 1000));
+    }
+
+    /**
+     * Assemble the dashboard for a lecturer, or the admin dashboard when lecturerId is null
+     */
+    public AnalyticsDashboardDTO assemble(Long lecturerId) {
+        AtomicBoolean partial = new AtomicBoolean();
+
+        var modulePerformance = section("module performance", partial,
+                () -> analyticsRollupService.getModulePerformance(lecturerId));
+        var testActivity = section("test activity", partial,
+                () -> analyticsRollupService.getTestActivity(lecturerId));
+        var aiConfidence = section("AI confidence", partial,
+                () -> analyticsRollupService.getAIConfidence(lecturerId));
+
+        CompletableFuture.allOf(modulePerformance, testActivity, aiConfidence).join();
+
+        return AnalyticsDashboardDTO.builder()
+                .modulePerformance(modulePerformance.join())
+                .testActivity(testActivity.join())
+                .aiConfidence(aiConfidence.join())
+                .partial(partial.get())
+                .build();
+    }
+
+    private <T> CompletableFuture<List<T>> section(String name, AtomicBoolean partial, Supplier<List<T>> query) {
+        CompletableFuture<List<T>> result = new CompletableFuture<>();
+        Future<?> task;
+        try {
+            task = analyticsQueryExecutor.submit(() -> {
+                try {
+                    result.complete(sectionTransaction.execute(status -> query.get()));
+                } catch (Throwable e) {
+                    result.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            log.warn("Analytics section '{}' not scheduled: {}", name, e.toString());
+            partial.set(true);
+            return CompletableFuture.completedFuture(List.of());
+        }
+
+        return result.orTimeout(queryTimeoutMillis, TimeUnit.MILLISECONDS)
+                .exceptionally(e -> {
+                    // Drops the task if it's still queued and interrupts it if it's running
+                    task.cancel(true);
+                    log.warn("Analytics section '{}' unavailable: {}", name, e.toString());
+                    partial.set(true);
+                    return List.of();
+                });
+    }
+}
@@ -0,0 +1,136 @@
+package com.classassess.classassess.service;
+
+import com.classassess.classassess.dto.AnalyticsDashboardDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Caches the assembled analytics dashboards (admin and per lecturer).
+ * Expired or invalidated entries keep being served while one background refresh
+ * recomputes them, so only the very first request for a dashboard waits.
+ */
+@Service
+@Slf4j
+public class AnalyticsCacheService {
+
+    private static final Long ADMIN_KEY = -1L;
+
+    private final AnalyticsAssembler analyticsAssembler;
+    private final TaskExecutor analyticsExecutor;
+    private final long ttlMillis;
+
+    private final ConcurrentHashMap<Long, CacheEntry> entries = new ConcurrentHashMap<>();
+
+    public AnalyticsCacheService(AnalyticsAssembler analyticsAssembler,
+                                 @Qualifier("analyticsExecutor") TaskExecutor analyticsExecutor,
+                                 @Value("${app.analytics.cache.ttl-ms:60000}") long ttlMillis) {
+        this.analyticsAssembler = analyticsAssembler;
+        this.analyticsExecutor = analyticsExecutor;
+        this.ttlMillis = ttlMillis;
+    }
+
+    /**
+     * Get the dashboard for a lecturer, or the admin dashboard when lecturerId is null
+     */
+    public AnalyticsDashboardDTO getDashboard(Long lecturerId) {
+        Long key = lecturerId != null ? lecturerId : ADMIN_KEY;
+        CacheEntry entry = entries.computeIfAbsent(key, k -> new CacheEntry());
+
+        AnalyticsDashboardDTO value = entry.value;
+        if (value == null) {
+            return entry.loadOnce(() -> analyticsAssembler.assemble(lecturerId));
+        }
+        if (entry.isStale(ttlMillis)) {
+            refreshInBackground(lecturerId, entry);
+        }
+        return value;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAnalyticsChanged(AnalyticsChangedEvent event) {
+        if (event.lecturerId() == null) {
+            entries.values().forEach(CacheEntry::invalidate);
+            return;
+        }
+        // Admin totals include every lecturer's data
+        invalidate(event.lecturerId());
+        invalidate(ADMIN_KEY);
+    }
+
+    private void invalidate(Long key) {
+        CacheEntry entry = entries.get(key);
+        if (entry != null) {
+            entry.invalidate();
+        }
+    }
+
+    private void refreshInBackground(Long lecturerId, CacheEntry entry) {
+        if (!entry.refreshing.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            analyticsExecutor.execute(() -> {
+                try {
+                    long generation = entry.generation.get();
+                    entry.store(analyticsAssembler.assemble(lecturerId), generation);
+                } catch (Exception e) {
+                    log.warn("Failed to refresh analytics for {}: {}", lecturerId != null ? lecturerId : "admin", e.getMessage());
+                } finally {
+                    entry.refreshing.set(false);
+                }
+            });
+        } catch (RuntimeException e) {
+            // Executor saturated; the stale value is served and the next request retries
+            entry.refreshing.set(false);
+        }
+    }
+
+    private static class CacheEntry {
+        private final AtomicLong generation = new AtomicLong();
+        private final AtomicBoolean refreshing = new AtomicBoolean();
+        private final ReentrantLock loadLock = new ReentrantLock();
+        private volatile AnalyticsDashboardDTO value;
+        private volatile long loadedGeneration;
+        private volatile long loadedAt;
+
+        boolean isStale(long ttlMillis) {
+            return loadedGeneration != generation.get() || System.currentTimeMillis() - loadedAt > ttlMillis;
+        }
+
+        void invalidate() {
+            generation.incrementAndGet();
+        }
+
+        // Capture the generation before computing so an invalidation during the load keeps the entry stale.
+        // Partial results are kept but treated as already expired so the next request retries.
+        void store(AnalyticsDashboardDTO newValue, long generationAtStart) {
+            loadedGeneration = generationAtStart;
+            loadedAt = newValue.isPartial() ? 0 : System.currentTimeMillis();
+            value = newValue;
+        }
+
+        // A lock rather than synchronized: the load blocks on queries, which would pin a virtual thread
+        AnalyticsDashboardDTO loadOnce(Supplier<AnalyticsDashboardDTO> loader) {
+            loadLock.lock();
+            try {
+                if (value == null) {
+                    long generationAtStart = generation.get();
+                    store(loader.get(), generationAtStart);
+                }
+                return value;
+            } finally {
+                loadLock.unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.classassess.classassess.service;
+
+/**
+ * Published when data behind the analytics dashboards changes.
+ * A null lecturerId means every lecturer's view may be affected.
+ */
+public record AnalyticsChangedEvent(Long lecturerId) {
+}
@@ -0,0 +1,480 @@
+package com.classassess.classassess.service;
+
+import com.classassess.classassess.dto.AIConfidenceDTO;
+import com.classassess.classassess.dto.ModulePerformanceDTO;
+import com.classassess.classassess.dto.TestActivityDTO;
+import com.classassess.classassess.model.ModuleAnalyticsRollup;
+import com.classassess.classassess.model.Test;
+import com.classassess.classassess.model.TestAnalyticsRollup;
+import com.classassess.classassess.repository.*;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Maintains the analytics rollup tables and serves the dashboards from them.
+ * Grading, appeals and enrolments only mark the affected test or module once their transaction
+ * commits; a scheduled flush then recomputes each marked row from the source tables and applies
+ * the difference, off the request thread and outside the business transaction. Because every
+ * write is a recompute-and-diff under the row's lock, flushes on different instances and the
+ * periodic reconciliation can overlap without losing or double-counting anything.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AnalyticsRollupService {
+    private static final String RECONCILE_LOCK = "analytics-rollup-reconcile";
+
+    private final TestAnalyticsRollupRepository testRollupRepository;
+    private final ModuleAnalyticsRollupRepository moduleRollupRepository;
+    private final MonthlyActivityRollupRepository monthlyRollupRepository;
+    private final TestRepository testRepository;
+    private final SubmissionRepository submissionRepository;
+    private final AnswerRepository answerRepository;
+    private final AppealRepository appealRepository;
+    private final ModuleRepository moduleRepository;
+    private final ScoreDistributionService scoreDistributionService;
+    private final ItemAnalysisService itemAnalysisService;
+    private final ClusterLockService clusterLockService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PlatformTransactionManager transactionManager;
+
+    // Tests and modules changed by committed transactions, waiting for the next flush
+    private final Set<Long> dirtyTests = ConcurrentHashMap.newKeySet();
+    private final Set<Long> dirtyModules = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Register a new test so it counts towards its module and shows up in the timeline
+     */
+    public void recordTestCreated(Test test) {
+        markAfterCommit(dirtyTests, test.getId());
+        if (test.getModule() != null) {
+            markAfterCommit(dirtyModules, test.getModule().getId());
+        }
+    }
+
+    /**
+     * Add a newly graded submission to the rollups
+     */
+    public void recordSubmissionGraded(Test test) {
+        markAfterCommit(dirtyTests, test.getId());
+        itemAnalysisService.invalidate(test.getId());
+    }
+
+    /**
+     * Count a newly submitted appeal
+     */
+    public void recordAppealSubmitted(Test test) {
+        markAfterCommit(dirtyTests, test.getId());
+    }
+
+    /**
+     * Count a new student enrollment in a module
+     */
+    public void recordEnrollment(Long moduleId) {
+        markAfterCommit(dirtyModules, moduleId);
+    }
+
+    /**
+     * Recompute one test after existing scores or appeal outcomes change
+     */
+    public void refreshTest(Long testId) {
+        markAfterCommit(dirtyTests, testId);
+    }
+
+    /**
+     * Apply the changes marked since the last flush. A burst of submits to one test costs one refresh.
+     */
+    @Scheduled(fixedDelayString = "${app.analytics.rollup.flush-interval-ms:1000}")
+    public void flush() {
+        boolean changed = drain(dirtyTests, this::refreshTestNow) | drain(dirtyModules, this::refreshModuleNow);
+        if (changed) {
+            // Passing rates are module-wide, so other lecturers teaching the module are affected too
+            eventPublisher.publishEvent(new AnalyticsChangedEvent(null));
+        }
+    }
+
+    /**
+     * Refresh every test and module from the source tables to correct drift, such as changes marked
+     * on an instance that stopped before flushing. Runs on one instance at a time.
+     */
+    @Scheduled(fixedDelayString = "${app.analytics.rollup.reconcile-interval-ms:3600000}",
+            initialDelayString = "${app.analytics.rollup.reconcile-initial-delay-ms:30000}")
+    public void reconcile() {
+        clusterLockService.runExclusively(RECONCILE_LOCK, this::reconcileAll);
+    }
+
+    private void reconcileAll() {
+        long startedAt = System.currentTimeMillis();
+        List<Long> testIds = List.copyOf(loadTestKeys(null).keySet());
+        List<Long> moduleIds = moduleRepository.findAllIds();
+
+        int testsCorrected = 0;
+        for (Long testId : testIds) {
+            if (refreshQuietly(testId, this::refreshTestNow)) {
+                testsCorrected++;
+            }
+        }
+        int modulesCorrected = 0;
+        for (Long moduleId : moduleIds) {
+            if (refreshQuietly(moduleId, this::refreshModuleNow)) {
+                modulesCorrected++;
+            }
+        }
+
+        if (testsCorrected + modulesCorrected > 0) {
+            eventPublisher.publishEvent(new AnalyticsChangedEvent(null));
+        }
+        log.info("Reconciled analytics rollups: corrected {} of {} tests and {} of {} modules in {} ms",
+                testsCorrected, testIds.size(), modulesCorrected, moduleIds.size(),
+                System.currentTimeMillis() - startedAt);
+    }
+
+    /**
+     * Recompute one test from the source tables and push the difference to its module and month
+     *
+     * @return whether anything changed
+     */
+    private boolean refreshTestNow(Long testId) {
+        Map<Long, Object[]> keys = loadTestKeys(testId);
+        Object[] key = keys.get(testId);
+        if (key == null) {
+            return false;
+        }
+        Long moduleId = (Long) key[1];
+        Long lecturerId = (Long) key[2];
+        LocalDateTime startTime = (LocalDateTime) key[3];
+
+        // Lock the row before reading the source tables, so overlapping refreshes of this test run one after another
+        testRollupRepository.applyDelta(testId, moduleId, lecturerId, 0, 0, 0, 0, 0, 0, 0);
+        TestAnalyticsRollup current = testRollupRepository.findByIdForUpdate(testId);
+        TestAnalyticsRollup fresh = computeTestRollups(keys, testId).get(testId);
+
+        long graded = fresh.getGradedCount() - current.getGradedCount();
+        long passed = fresh.getPassedCount() - current.getPassedCount();
+        double scoreSum = fresh.getScoreSum() - current.getScoreSum();
+        long answers = fresh.getAnswerCount() - current.getAnswerCount();
+        long answersPassed = fresh.getAnswerPassedCount() - current.getAnswerPassedCount();
+        long appeals = fresh.getAppealCount() - current.getAppealCount();
+        long approvedAppeals = fresh.getApprovedAppealCount() - current.getApprovedAppealCount();
+
+        // Keep the month row even with nothing graded yet, so the test shows up in the timeline
+        applyMonthlyDelta(lecturerId, startTime, graded);
+        // A regrade can move scores without changing any total, so the sketch is always rebuilt
+        scoreDistributionService.refreshTest(testId, moduleId, lecturerId);
+        if (graded == 0 && passed == 0 && Math.abs(scoreSum) < 1e-6 && answers == 0 && answersPassed == 0
+                && appeals == 0 && approvedAppeals == 0) {
+            return false;
+        }
+
+        testRollupRepository.applyDelta(testId, moduleId, lecturerId,
+                graded, passed, scoreSum, answers, answersPassed, appeals, approvedAppeals);
+        if (moduleId != null) {
+            moduleRollupRepository.applyDelta(moduleId, 0, 0,
+                    graded, passed, scoreSum, answers, answersPassed, appeals, approvedAppeals);
+        }
+        itemAnalysisService.invalidate(testId);
+        return true;
+    }
+
+    /**
+     * Recount a module's tests and students and apply the difference
+     *
+     * @return whether anything changed
+     */
+    private boolean refreshModuleNow(Long moduleId) {
+        moduleRollupRepository.applyDelta(moduleId, 0, 0, 0, 0, 0, 0, 0, 0, 0);
+        ModuleAnalyticsRollup current = moduleRollupRepository.findByIdForUpdate(moduleId);
+
+        long tests = testRepository.countByModuleId(moduleId) - current.getTestCount();
+        long students = moduleRepository.countStudentsByModuleId(moduleId) - current.getStudentCount();
+        if (tests == 0 && students == 0) {
+            return false;
+        }
+        moduleRollupRepository.applyDelta(moduleId, tests, students, 0, 0, 0, 0, 0, 0, 0);
+        return true;
+    }
+
+    /**
+     * Module performance for one lecturer's tests, or all modules when lecturerId is null
+     */
+    @Transactional(readOnly = true)
+    public List<ModulePerformanceDTO> getModulePerformance(Long lecturerId) {
+        List<ModulePerformanceDTO> result = new ArrayList<>();
+
+        if (lecturerId == null) {
+            for (Object[] row : moduleRollupRepository.findAllWithModule()) {
+                ModuleAnalyticsRollup module = (ModuleAnalyticsRollup) row[0];
+                if (module.getTestCount() == 0) {
+                    continue;
+                }
+                result.add(ModulePerformanceDTO.builder()
+                        .moduleCode((String) row[1])
+                        .moduleTitle((String) row[2])
+                        .avgScore(average(module.getScoreSum(), module.getGradedCount()))
+                        .passingRate(percentage(module.getPassedCount(), module.getGradedCount()))
+                        .totalStudents((int) module.getStudentCount())
+                        .totalSubmissions((int) module.getTestCount())
+                        .build());
+            }
+            return result;
+        }
+
+        List<Object[]> totals = testRollupRepository.getModuleTotalsByLecturerId(lecturerId);
+        Map<Long, ModuleAnalyticsRollup> modules = loadModuleRollups(totals);
+
+        for (Object[] row : totals) {
+            ModuleAnalyticsRollup module = modules.get((Long) row[0]);
+            long testCount = ((Number) row[3]).longValue();
+            double scoreSum = ((Number) row[4]).doubleValue();
+            long graded = ((Number) row[5]).longValue();
+
+            // Passing rate and enrolment stay module-wide, as before
+            result.add(ModulePerformanceDTO.builder()
+                    .moduleCode((String) row[1])
+                    .moduleTitle((String) row[2])
+                    .avgScore(average(scoreSum, graded))
+                    .passingRate(module != null ? percentage(module.getPassedCount(), module.getGradedCount()) : 0.0)
+                    .totalStudents(module != null ? (int) module.getStudentCount() : 0)
+                    .totalSubmissions((int) testCount)
+                    .build());
+        }
+        return result;
+    }
+
+    /**
+     * Completed and upcoming tests per month for one lecturer, or everyone when lecturerId is null
+     */
+    @Transactional(readOnly = true)
+    public List<TestActivityDTO> getTestActivity(Long lecturerId) {
+        return getTestActivity(lecturerId, null, null);
+    }
+
+    /**
+     * Test activity between two months inclusive; null bounds are open
+     */
+    @Transactional(readOnly = true)
+    public List<TestActivityDTO> getTestActivity(Long lecturerId, YearMonth from, YearMonth to) {
+        List<Object[]> rows = monthlyRollupRepository.findActivityByLecturerIdAndDateRange(lecturerId,
+                from != null ? toBucket(from) : null,
+                to != null ? toBucket(to) : null);
+
+        List<TestActivityDTO> activity = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            int bucket = ((Number) row[0]).intValue();
+            activity.add(TestActivityDTO.builder()
+                    .period(String.format("%d-%02d", bucket / 12, bucket % 12 + 1))
+                    .completedTests(((Number) row[1]).intValue())
+                    .upcomingTests(((Number) row[2]).intValue())
+                    .build());
+        }
+        return activity;
+    }
+
+    /**
+     * Months packed as year * 12 + month - 1 so they sort and compare as plain ints
+     */
+    public static int toBucket(YearMonth month) {
+        return month.getYear() * 12 + month.getMonthValue() - 1;
+    }
+
+    /**
+     * AI grading confidence per module for one lecturer's tests, or all modules when lecturerId is null
+     */
+    @Transactional(readOnly = true)
+    public List<AIConfidenceDTO> getAIConfidence(Long lecturerId) {
+        List<AIConfidenceDTO> result = new ArrayList<>();
+
+        if (lecturerId == null) {
+            for (Object[] row : moduleRollupRepository.findAllWithModule()) {
+                ModuleAnalyticsRollup module = (ModuleAnalyticsRollup) row[0];
+                if (module.getAnswerCount() == 0) {
+                    continue;
+                }
+                result.add(buildConfidence((String) row[1], (String) row[2], module.getAnswerCount(),
+                        module.getAnswerPassedCount(), module.getAppealCount(), module.getApprovedAppealCount()));
+            }
+            return result;
+        }
+
+        for (Object[] row : testRollupRepository.getModuleTotalsByLecturerId(lecturerId)) {
+            long answers = ((Number) row[6]).longValue();
+            if (answers == 0) {
+                continue;
+            }
+            result.add(buildConfidence((String) row[1], (String) row[2], answers,
+                    ((Number) row[7]).longValue(), ((Number) row[8]).longValue(), ((Number) row[9]).longValue()));
+        }
+        return result;
+    }
+
+    private AIConfidenceDTO buildConfidence(String moduleCode, String moduleTitle, long answers, long answersPassed,
+                                            long appeals, long approvedAppeals) {
+        double passingRate = answers > 0 ? (double) answersPassed / answers : 0.0;
+
+        return AIConfidenceDTO.builder()
+                .moduleCode(moduleCode)
+                .moduleTitle(moduleTitle)
+                .confidenceScore(calculateAIConfidence(passingRate, (int) appeals, (int) approvedAppeals, answers))
+                .totalGradedQuestions((int) answers)
+                .totalAppeals((int) appeals)
+                .successfulAppeals((int) approvedAppeals)
+                .build();
+    }
+
+    /**
+     * Calculate AI confidence score
+     * Formula: (passing rate * 0.5) + ((1 - approved appeals ratio) * 0.5), scaled by data volume, * 100
+     */
+    private double calculateAIConfidence(double passingRate, int totalAppeals, int approvedAppeals, long totalAnswers) {
+        // Calculate appeal factor (how often AI was correct when challenged)
+        double appealRatio = totalAppeals > 0 ? (double) approvedAppeals / totalAppeals : 0;
+        double appealFactor = totalAppeals > 0 ? (1 - appealRatio) : 1.0;
+
+        // Calculate base confidence
+        double confidenceScore = (passingRate * 0.5) + (appealFactor * 0.5);
+
+        // Add significant bonus for zero appeals when there's substantial data
+        if (totalAppeals == 0 && totalAnswers > 20) {
+            confidenceScore = Math.min(1.0, confidenceScore + 0.3); // 30% bonus, capped at 100%
+        }
+
+        // Apply gradual scaling based on number of answers (more data = more confidence)
+        double dataConfidenceFactor = Math.min(1.0, totalAnswers / 100.0); // Reaches max at 100 answers
+        confidenceScore = confidenceScore * (0.7 + (0.3 * dataConfidenceFactor));
+
+        // Scale to 0-100 and round to 1 decimal place
+        return Math.round(confidenceScore * 1000) / 10.0;
+    }
+
+    private Map<Long, Object[]> loadTestKeys(Long testId) {
+        return testRepository.getRollupKeys(testId).stream()
+                .collect(Collectors.toMap(row -> (Long) row[0], Function.identity()));
+    }
+
+    private Map<Long, TestAnalyticsRollup> computeTestRollups(Map<Long, Object[]> keys, Long testId) {
+        Map<Long, TestAnalyticsRollup> rollups = new HashMap<>();
+        for (Object[] key : keys.values()) {
+            TestAnalyticsRollup rollup = new TestAnalyticsRollup();
+            rollup.setTestId((Long) key[0]);
+            rollup.setModuleId((Long) key[1]);
+            rollup.setLecturerId((Long) key[2]);
+            rollups.put(rollup.getTestId(), rollup);
+        }
+
+        for (Object[] row : submissionRepository.getGradedTotalsByTest(testId)) {
+            TestAnalyticsRollup rollup = rollups.get((Long) row[0]);
+            if (rollup != null) {
+                rollup.setGradedCount(((Number) row[1]).longValue());
+                rollup.setPassedCount(((Number) row[2]).longValue());
+                rollup.setScoreSum(((Number) row[3]).doubleValue());
+            }
+        }
+        for (Object[] row : answerRepository.getAnswerTotalsByTest(testId)) {
+            TestAnalyticsRollup rollup = rollups.get((Long) row[0]);
+            if (rollup != null) {
+                rollup.setAnswerCount(((Number) row[1]).longValue());
+                rollup.setAnswerPassedCount(((Number) row[2]).longValue());
+            }
+        }
+        for (Object[] row : appealRepository.getAppealTotalsByTest(testId)) {
+            TestAnalyticsRollup rollup = rollups.get((Long) row[0]);
+            if (rollup != null) {
+                rollup.setAppealCount(((Number) row[1]).longValue());
+                rollup.setApprovedAppealCount(((Number) row[2]).longValue());
+            }
+        }
+        return rollups;
+    }
+
+    private Map<Long, ModuleAnalyticsRollup> loadModuleRollups(List<Object[]> totals) {
+        List<Long> moduleIds = totals.stream().map(row -> (Long) row[0]).collect(Collectors.toList());
+        return moduleRollupRepository.findAllById(moduleIds).stream()
+                .collect(Collectors.toMap(ModuleAnalyticsRollup::getModuleId, Function.identity()));
+    }
+
+    /**
+     * Mark a test or module for the next flush once the caller's transaction commits. Nothing is marked
+     * on rollback, and the flush reads the committed rows.
+     */
+    private void markAfterCommit(Set<Long> dirty, Long id) {
+        if (id == null) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            dirty.add(id);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                dirty.add(id);
+            }
+        });
+    }
+
+    private boolean drain(Set<Long> dirty, Function<Long, Boolean> refresh) {
+        boolean changed = false;
+        for (Long id : List.copyOf(dirty)) {
+            dirty.remove(id);
+            try {
+                changed |= inRefreshTransaction(() -> refresh.apply(id));
+            } catch (RuntimeException e) {
+                // Retry on the next flush; if this instance stops first, the reconcile corrects it
+                dirty.add(id);
+                log.warn("Failed to refresh analytics rollup for {}, will retry: {}", id, e.getMessage());
+            }
+        }
+        return changed;
+    }
+
+    private boolean refreshQuietly(Long id, Function<Long, Boolean> refresh) {
+        try {
+            return inRefreshTransaction(() -> refresh.apply(id));
+        } catch (RuntimeException e) {
+            log.warn("Failed to reconcile analytics rollup for {}: {}", id, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Read committed, so the source rows read after taking the rollup row's lock include everything
+     * committed before it, rather than a snapshot from the start of the transaction
+     */
+    private boolean inRefreshTransaction(Supplier<Boolean> refresh) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        template.setIsolationLevel(TransactionDefinition.ISOLATION_READ_COMMITTED);
+        return Boolean.TRUE.equals(template.execute(status -> refresh.get()));
+    }
+
+    private void applyMonthlyDelta(Long lecturerId, LocalDateTime startTime, long completed) {
+        if (lecturerId != null && startTime != null) {
+            monthlyRollupRepository.applyDelta(lecturerId, startTime.getYear(), startTime.getMonthValue(), completed);
+        }
+    }
+
+    private static Double average(double sum, long count) {
+        return count > 0 ? sum / count : 0.0;
+    }
+
+    private static Double percentage(long part, long total) {
+        return total > 0 ? part * 100.0 / total : 0.0;
+    }
+}
@@ -7,6 +7,7 @@ import com.classassess.classassess.exception.ResourceNotFoundException;
 import com.classassess.classassess.model.*;
 import com.classassess.classassess.repository.*;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -19,6 +20,7 @@ import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
+@Slf4j
 public class AppealService {
     private final AppealRepository appealRepository;
     private final AppealQuestionRepository appealQuestionRepository;
@@ -29,6 +31,10 @@ public class AppealService {
     private final UserService userService;
     private final NotificationService notificationService;
     private final AnswerRepository answerRepository;
+    private final DashboardUpdateService dashboardUpdateService;
+    private final AnalyticsRollupService analyticsRollupService;
+    private final SubmissionFactStore submissionFactStore;
+    private final StudentPerformanceService studentPerformanceService;
 
     /**
      * Submit a new appeal for a test submission
@@ -64,6 +70,10 @@ public class AppealService {
 
         Appeal savedAppeal = appealRepository.save(appeal);
         notificationService.handleAppealSubmissionNotification(savedAppeal, savedAppeal.getTest(), savedAppeal.getTest().getModule());
+        analyticsRollupService.recordAppealSubmitted(savedAppeal.getTest());
+        if (savedAppeal.getTest().getLecturer() != null) {
+            dashboardUpdateService.recordAppealSubmitted(savedAppeal.getTest().getLecturer().getId());
+        }
 
         // Save the associated questions
         if (appealDTO.getQuestions() != null && !appealDTO.getQuestions().isEmpty()) {
@@ -300,8 +310,16 @@ public class AppealService {
             }
         }
 
+        if (appeal.getStatus() != AppealStatus.PENDING) {
+            dashboardUpdateService.recordAppealResolved(lecturer.getId());
+        }
+
         Appeal savedAppeal = appealRepository.save(appeal);
         notificationService.handleAppealStatusUpdateNotification(savedAppeal, savedAppeal.getTest(), savedAppeal.getTest().getModule());
+        // Every branch above can change the submission's score, so refresh its derived totals once here
+        submissionFactStore.record(savedAppeal.getSubmission());
+        studentPerformanceService.refresh(savedAppeal.getSubmission());
+        analyticsRollupService.refreshTest(savedAppeal.getTest().getId());
         return convertToDTO(savedAppeal);
     }
     /**
@@ -314,18 +332,18 @@ public class AppealService {
         // Explicitly fetch all answers for this submission to ensure completeness
         List<Answer> allAnswers = answerRepository.findBySubmissionId(submission.getId());
 
-        System.out.println("Recalculating score with " + allAnswers.size() + " answers");
+        log.debug("Recalculating score with {} answers", allAnswers.size());
 
         for (Answer answer : allAnswers) {
             totalScore += answer.getScore();
             totalPoints += answer.getQuestion().getPoints();
-            System.out.println("Question " + answer.getQuestion().getId() + ": " +
-                    answer.getScore() + "/" + answer.getQuestion().getPoints());
+            if (log.isDebugEnabled()) {
+                log.debug("Question {}: {}/{}", answer.getQuestion().getId(), answer.getScore(), answer.getQuestion().getPoints());
+            }
         }
 
         double finalScore = totalPoints > 0 ? (totalScore / totalPoints) * 100 : 0;
-        System.out.println("FULL TEST CALCULATION - Total earned: " + totalScore + "/" +
-                totalPoints + " = " + finalScore + "%");
+        log.debug("FULL TEST CALCULATION - Total earned: {}/{} = {}%", totalScore, totalPoints, finalScore);
         submission.setTotalScore(finalScore);
     }
 
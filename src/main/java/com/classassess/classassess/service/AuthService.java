@@ -4,6 +4,7 @@ import com.classassess.classassess.dto.AuthResponse;
 import com.classassess.classassess.dto.LoginRequest;
 import com.classassess.classassess.dto.RegisterRequest;
 import com.classassess.classassess.exception.ResourceNotFoundException;
+import com.classassess.classassess.exception.TooManyRequestsException;
 import com.classassess.classassess.model.Role;
 import com.classassess.classassess.model.User;
 import com.classassess.classassess.repository.ModuleRepository;
@@ -11,13 +12,12 @@ import com.classassess.classassess.repository.UserRepository;
 import com.classassess.classassess.repository.ModuleStudentRepository;
 import com.classassess.classassess.model.ModuleStudent;
 import com.classassess.classassess.security.JwtService;
-import jakarta.annotation.PostConstruct;
+import com.classassess.classassess.security.ModuleAccessResolver;
+import com.classassess.classassess.security.PrincipalCache;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.authentication.DisabledException;
+import org.springframework.security.authentication.LockedException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -33,9 +33,15 @@ public class AuthService {
     private final ModuleStudentRepository moduleStudentRepository;
     private final PasswordEncoder passwordEncoder;
     private final JwtService jwtService;
-    private final AuthenticationManager authenticationManager;
+    private final PasswordHashingService passwordHashingService;
+    private final LoginAttemptService loginAttemptService;
     private final EmailService emailService;
     private final NotificationService notificationService;
+    private final AnalyticsRollupService analyticsRollupService;
+    private final PrincipalCache principalCache;
+    private final TokenVersionService tokenVersionService;
+    private final ModuleAccessResolver moduleAccessResolver;
+    private final UserService userService;
 
 
     @Transactional
@@ -69,6 +75,8 @@ public class AuthService {
             var module = moduleRepository.findByCode(moduleCode)
                     .orElseThrow(() -> new RuntimeException("Module not found: " + moduleCode));
             moduleStudentRepository.save(new ModuleStudent(module, user));
+            moduleAccessResolver.invalidate(user.getId());
+            analyticsRollupService.recordEnrollment(module.getId());
         });
 
         // For pending accounts, don't generate a token
@@ -90,6 +98,10 @@ public class AuthService {
 
         User.AccountStatus oldStatus = user.getAccountStatus();
         user.setAccountStatus(status);
+        if (status != User.AccountStatus.APPROVED) {
+            tokenVersionService.revokeTokens(user);
+        }
+        principalCache.invalidate(user.getEmail());
         userRepository.save(user);
 
         // Trigger notification on approval or rejection
@@ -99,11 +111,14 @@ public class AuthService {
         }
     }
 
-    public AuthResponse login(LoginRequest request) {
+    public AuthResponse login(LoginRequest request, String clientIp) {
+        // Refuse throttled account and address pairs, and addresses, before doing any hashing
+        loginAttemptService.checkAllowed(request.getEmail(), clientIp);
         try {
             // First check if the user exists
             Optional<User> userOptional = userRepository.findByEmail(request.getEmail());
             if (userOptional.isEmpty()) {
+                loginAttemptService.recordFailure(request.getEmail(), clientIp);
                 throw new BadCredentialsException("Invalid email or password");
             }
 
@@ -139,14 +154,31 @@ public class AuthService {
                         .build(); // No token set for suspended accounts
             }
 
-            // Now attempt authentication for approved accounts
-            try {
-                Authentication authentication = authenticationManager.authenticate(
-                        new UsernamePasswordAuthenticationToken(request.getEmail(), request.getPassword())
-                );
-            } catch (BadCredentialsException e) {
+            // Now verify the password for approved accounts
+            if (!passwordHashingService.verify(request.getPassword(), user.getPasswordHash())) {
+                loginAttemptService.recordFailure(request.getEmail(), clientIp);
                 throw new BadCredentialsException("Invalid email or password");
             }
+            if (!user.isEnabled()) {
+                throw new DisabledException("User is disabled");
+            }
+            if (!user.isAccountNonLocked()) {
+                throw new LockedException("User account is locked");
+            }
+            loginAttemptService.recordSuccess(request.getEmail(), clientIp);
+
+            // Bring the hash up to the configured cost while the plain password is available,
+            // on the verification pool so the extra hash doesn't hold up the login
+            String verifiedHash = user.getPasswordHash();
+            if (passwordHashingService.needsRehash(verifiedHash)) {
+                Long userId = user.getId();
+                String email = user.getEmail();
+                passwordHashingService.rehashInBackground(request.getPassword(), newHash -> {
+                    if (userRepository.updatePasswordHash(userId, verifiedHash, newHash) > 0) {
+                        principalCache.invalidate(email);
+                    }
+                });
+            }
 
             // Only generate token for approved accounts
             var token = jwtService.generateToken(user);
@@ -159,13 +191,15 @@ public class AuthService {
                     .accountStatus(User.AccountStatus.APPROVED.name())
                     .requiresApproval(false)
                     .build();
+        } catch (TooManyRequestsException e) {
+            throw e;
         } catch (Exception e) {
             throw new RuntimeException("Login failed: " + e.getMessage());
         }
     }
 
     public AuthResponse getCurrentUserProfile() {
-        var user = (User) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        User user = userService.getCurrentUser();
         return AuthResponse.builder()
                 .email(user.getEmail())
                 .role(user.getRole().name())
@@ -174,13 +208,6 @@ public class AuthService {
                 .build();
     }
 
-    @PostConstruct
-    public void init() {
-        String testPassword = "password123";
-        String hashedPassword = passwordEncoder.encode(testPassword);
-        System.out.println("Test password hash for 'password123': " + hashedPassword);
-    }
-
     @Transactional
     public void requestPasswordReset(String email) {
         User user = userRepository.findByEmail(email)
@@ -216,6 +243,8 @@ public class AuthService {
         user.setResetToken(null);
         user.setResetTokenExpiry(null);
 
+        tokenVersionService.revokeTokens(user);
+        principalCache.invalidate(user.getEmail());
         userRepository.save(user);
     }
 
@@ -0,0 +1,61 @@
+package com.classassess.classassess.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Runs scheduled jobs on one instance at a time using MySQL named locks. The lock belongs to
+ * a connection held for the length of the job, so it is released even if the instance dies.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ClusterLockService {
+    private final DataSource dataSource;
+
+    /**
+     * Run the task unless another instance is already running it
+     *
+     * @return whether the task ran here
+     */
+    public boolean runExclusively(String lockName, Runnable task) {
+        try (Connection connection = dataSource.getConnection()) {
+            if (!acquire(connection, lockName)) {
+                log.debug("Skipping {}, another instance holds the lock", lockName);
+                return false;
+            }
+            try {
+                task.run();
+            } finally {
+                release(connection, lockName);
+            }
+            return true;
+        } catch (SQLException e) {
+            log.warn("Could not take the {} lock, skipping this run: {}", lockName, e.getMessage());
+            return false;
+        }
+    }
+
+    private boolean acquire(Connection connection, String lockName) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT GET_LOCK(?, 0)")) {
+            statement.setString(1, lockName);
+            try (ResultSet result = statement.executeQuery()) {
+                return result.next() && result.getInt(1) == 1;
+            }
+        }
+    }
+
+    private void release(Connection connection, String lockName) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT RELEASE_LOCK(?)")) {
+            statement.setString(1, lockName);
+            statement.execute();
+        }
+    }
+}
@@ -1,58 +1,105 @@
 package com.classassess.classassess.service;
 
+import com.classassess.classassess.dto.DashboardDeltaDTO;
 import com.classassess.classassess.dto.DashboardUpdateDTO;
 import lombok.RequiredArgsConstructor;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
 /**
- * Service for sending real-time updates to the dashboard via WebSocket
+ * Service for sending real-time updates to the dashboard via WebSocket.
+ * Events are coalesced per lecturer and pushed as counter deltas once per flush window.
  */
 @Service
 @RequiredArgsConstructor
 public class DashboardUpdateService {
     private final SimpMessagingTemplate messagingTemplate;
 
+    private final ConcurrentHashMap<Long, PendingDelta> pendingDeltas = new ConcurrentHashMap<>();
+
     /**
-     * Send dashboard update to a specific lecturer
+     * Send dashboard update to a specific lecturer (routed through the lecturer's authenticated sessions)
      */
     public void sendDashboardUpdate(Long lecturerId, DashboardUpdateDTO update) {
-        messagingTemplate.convertAndSend("/topic/dashboard/" + lecturerId, update);
+        messagingTemplate.convertAndSendToUser(lecturerId.toString(), "/queue/dashboard", update);
     }
 
     /**
-     * Send test submission update
+     * Record a graded test submission
      */
-    public void sendTestSubmissionUpdate(Long testId, Long lecturerId) {
-        DashboardUpdateDTO update = new DashboardUpdateDTO();
-        update.setType("TEST_SUBMISSION");
-        update.setEntityId(testId);
-        update.setMessage("New test submission received");
+    public void recordSubmissionGraded(Long lecturerId) {
+        record(lecturerId, delta -> delta.submissionsGraded++);
+    }
 
-        sendDashboardUpdate(lecturerId, update);
+    /**
+     * Record a newly submitted appeal
+     */
+    public void recordAppealSubmitted(Long lecturerId) {
+        record(lecturerId, delta -> delta.appealsSubmitted++);
     }
 
     /**
-     * Send appeal submission update
+     * Record a resolved appeal
      */
-    public void sendAppealUpdate(Long appealId, Long lecturerId) {
-        DashboardUpdateDTO update = new DashboardUpdateDTO();
-        update.setType("APPEAL_SUBMISSION");
-        update.setEntityId(appealId);
-        update.setMessage("New appeal received");
+    public void recordAppealResolved(Long lecturerId) {
+        record(lecturerId, delta -> delta.appealsResolved++);
+    }
 
-        sendDashboardUpdate(lecturerId, update);
+    /**
+     * Record a student enrollment in one of the lecturer's modules
+     */
+    public void recordEnrollment(Long lecturerId) {
+        record(lecturerId, delta -> delta.enrollments++);
     }
 
     /**
-     * Send student enrollment update
+     * Push the accumulated deltas, one message per lecturer
      */
-    public void sendStudentEnrollmentUpdate(Long moduleId, Long lecturerId) {
-        DashboardUpdateDTO update = new DashboardUpdateDTO();
-        update.setType("STUDENT_ENROLLMENT");
-        update.setEntityId(moduleId);
-        update.setMessage("New student enrolled in module");
+    @Scheduled(fixedDelayString = "${app.dashboard.flush-interval-ms:2000}")
+    public void flushUpdates() {
+        for (Long lecturerId : pendingDeltas.keySet()) {
+            PendingDelta delta = pendingDeltas.remove(lecturerId);
+            if (delta == null) {
+                continue;
+            }
+
+            DashboardUpdateDTO update = DashboardUpdateDTO.builder()
+                    .type("DASHBOARD_DELTA")
+                    .message("Dashboard counters changed")
+                    .timestamp(LocalDateTime.now())
+                    .data(DashboardDeltaDTO.builder()
+                            .submissionsGraded(delta.submissionsGraded)
+                            .appealsSubmitted(delta.appealsSubmitted)
+                            .appealsResolved(delta.appealsResolved)
+                            .enrollments(delta.enrollments)
+                            .build())
+                    .build();
+
+            sendDashboardUpdate(lecturerId, update);
+        }
+    }
+
+    private void record(Long lecturerId, Consumer<PendingDelta> change) {
+        if (lecturerId == null) {
+            return;
+        }
+        // compute holds the bin lock, so updates never race with the remove in flushUpdates
+        pendingDeltas.compute(lecturerId, (id, delta) -> {
+            PendingDelta current = delta != null ? delta : new PendingDelta();
+            change.accept(current);
+            return current;
+        });
+    }
 
-        sendDashboardUpdate(lecturerId, update);
+    private static class PendingDelta {
+        private int submissionsGraded;
+        private int appealsSubmitted;
+        private int appealsResolved;
+        private int enrollments;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,132 @@
+package com.classassess.classassess.service;
+
+import com.classassess.classassess.model.Role;
+import com.classassess.classassess.repository.ActiveSessionRepository;
+import com.classassess.classassess.repository.RevokedTokenRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Session store shared by every instance through the database.
+ * Activity is written at most once per user per minute from each instance. Revoked token ids
+ * are mirrored in memory and synced periodically, so a logout on one instance takes effect on
+ * the others within the sync interval without a query per request. After the first full load
+ * each sync only reads tokens revoked since the previous one.
+ */
+@Service
+@ConditionalOnProperty(name = "app.session.store", havingValue = "database")
+@RequiredArgsConstructor
+@Slf4j
+public class DatabaseSessionStore implements SessionStore {
+
+    private final ActiveSessionRepository activeSessionRepository;
+    private final RevokedTokenRepository revokedTokenRepository;
+
+    // Minute last written per user from this instance, to skip redundant writes
+    private final ConcurrentHashMap<String, Long> lastWrittenMinute = new ConcurrentHashMap<>();
+
+    // Token id -> expiry in epoch millis
+    private final ConcurrentHashMap<String, Long> revokedTokens = new ConcurrentHashMap<>();
+
+    // Re-read this far back on each sync, for clock skew between instances and late commits
+    @Value("${app.session.revocation-sync-overlap-ms:60000}")
+    private long syncOverlapMs;
+
+    // Start of the last successful sync in epoch millis, 0 until the first full load
+    private volatile long lastSync;
+
+    @Override
+    public void recordActivity(String username, Role role, long nowMillis) {
+        long minute = nowMillis / 60_000;
+        Long previous = lastWrittenMinute.put(username, minute);
+        if (previous != null && previous == minute) {
+            return;
+        }
+        activeSessionRepository.touch(username, role != null ? role.name() : null, minute);
+    }
+
+    @Override
+    public long getActiveCount(long nowMillis) {
+        return getActiveCountByRole(nowMillis).values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    @Override
+    public Map<String, Long> getActiveCountByRole(long nowMillis) {
+        Map<String, Long> byRole = new LinkedHashMap<>();
+        for (Role role : Role.values()) {
+            byRole.put(role.name(), 0L);
+        }
+        for (Object[] row : activeSessionRepository.countActiveByRole(cutoffMinute(nowMillis))) {
+            String role = row[0] != null ? (String) row[0] : "UNKNOWN";
+            byRole.merge(role, ((Number) row[1]).longValue(), Long::sum);
+        }
+        return byRole;
+    }
+
+    @Override
+    public void revoke(String tokenId, long expiresAtMillis) {
+        revokedTokenRepository.insertIgnore(tokenId, expiresAtMillis, System.currentTimeMillis());
+        revokedTokens.put(tokenId, expiresAtMillis);
+    }
+
+    @Override
+    public boolean isRevoked(String tokenId) {
+        return revokedTokens.containsKey(tokenId);
+    }
+
+    @Override
+    public void purgeExpired(long nowMillis) {
+        long cutoff = cutoffMinute(nowMillis);
+        lastWrittenMinute.values().removeIf(minute -> minute <= cutoff);
+        revokedTokens.values().removeIf(expiresAt -> expiresAt < nowMillis);
+
+        int sessions = activeSessionRepository.deleteInactive(cutoff);
+        int tokens = revokedTokenRepository.deleteExpired(nowMillis);
+        log.debug("Purged {} inactive sessions and {} expired revoked tokens", sessions, tokens);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        syncRevokedTokens();
+    }
+
+    /**
+     * Pull tokens revoked on other instances. Entries are only ever added here and dropped on
+     * expiry, so a sync racing a local revoke can't lose it.
+     */
+    @Scheduled(fixedDelayString = "${app.session.revocation-sync-ms:5000}",
+            initialDelayString = "${app.session.revocation-sync-ms:5000}")
+    public void syncRevokedTokens() {
+        syncRevokedTokens(System.currentTimeMillis());
+    }
+
+    void syncRevokedTokens(long nowMillis) {
+        try {
+            List<Object[]> rows = lastSync == 0
+                    ? revokedTokenRepository.findUnexpired(nowMillis)
+                    : revokedTokenRepository.findRevokedSince(lastSync - syncOverlapMs, nowMillis);
+            for (Object[] row : rows) {
+                revokedTokens.putIfAbsent((String) row[0], ((Number) row[1]).longValue());
+            }
+            lastSync = nowMillis;
+        } catch (Exception e) {
+            // Keep the last known denylist; the next sync will catch up
+            log.warn("Failed to sync revoked tokens: {}", e.getMessage());
+        }
+    }
+
+    private static long cutoffMinute(long nowMillis) {
+        return nowMillis / 60_000 - SessionService.ACTIVE_WINDOW_MINUTES;
+    }
+}
@@ -0,0 +1,204 @@
+package com.classassess.classassess.service;
+
+import com.classassess.classassess.dto.ExamPresenceDTO;
+import com.classassess.classassess.dto.ExamTakerDTO;
+import com.classassess.classassess.model.Test;
+import com.classassess.classassess.model.User;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tracks which students have a test open so lecturers can monitor exams live.
+ * Idle takers expire through a timing wheel, so heartbeats and expiry are O(1) per taker.
+ */
+@Service
+public class ExamPresenceService {
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final TimingWheel<TakerKey> expiryWheel;
+
+    private final Map<Long, TestPresence> presenceByTest = new ConcurrentHashMap<>();
+    // testId -> lecturerId, kept separately so a test whose last taker left still gets its empty update pushed
+    private final Map<Long, Long> changedTests = new ConcurrentHashMap<>();
+
+    public ExamPresenceService(SimpMessagingTemplate messagingTemplate,
+                               @Value("${app.presence.tick-ms:5000}") long tickMillis,
+                               @Value("${app.presence.idle-timeout-ms:90000}") long idleTimeoutMillis) {
+        this.messagingTemplate = messagingTemplate;
+        this.expiryWheel = new TimingWheel<>((int) Math.max(1, idleTimeoutMillis / tickMillis));
+    }
+
+    /**
+     * Record that a student opened the test
+     */
+    public void recordOpened(Test test, User student) {
+        recordActivity(test, student, false);
+    }
+
+    /**
+     * Record an autosave from a student taking the test
+     */
+    public void recordAutosave(Test test, User student) {
+        recordActivity(test, student, true);
+    }
+
+    /**
+     * Heartbeat from a student who already has the test open; unknown takers are ignored
+     */
+    public void heartbeat(Long testId, Long studentId) {
+        TestPresence presence = presenceByTest.get(testId);
+        if (presence == null) {
+            return;
+        }
+        TakerState state = presence.takers.get(studentId);
+        if (state != null) {
+            state.lastSeen = LocalDateTime.now();
+            expiryWheel.touch(new TakerKey(testId, studentId));
+        }
+    }
+
+    /**
+     * Student submitted or left the test
+     */
+    public void recordLeft(Long testId, Long studentId) {
+        expiryWheel.remove(new TakerKey(testId, studentId));
+        removeTaker(testId, studentId);
+    }
+
+    /**
+     * Test was closed, drop everyone still tracked against it
+     */
+    public void closeTest(Long testId) {
+        TestPresence presence = presenceByTest.remove(testId);
+        if (presence == null) {
+            return;
+        }
+        presence.takers.keySet().forEach(studentId -> expiryWheel.remove(new TakerKey(testId, studentId)));
+        changedTests.put(testId, presence.lecturerId);
+    }
+
+    public ExamPresenceDTO getPresence(Long testId) {
+        TestPresence presence = presenceByTest.get(testId);
+        if (presence == null) {
+            return ExamPresenceDTO.builder().testId(testId).activeTakers(0).takers(List.of()).build();
+        }
+        return presence.toDTO(testId);
+    }
+
+    /**
+     * Expire idle takers and push changed tests to their lecturers
+     */
+    @Scheduled(fixedRateString = "${app.presence.tick-ms:5000}")
+    public void tick() {
+        for (TakerKey key : expiryWheel.advance()) {
+            removeTaker(key.testId(), key.studentId());
+        }
+
+        for (Long testId : changedTests.keySet()) {
+            Long lecturerId = changedTests.remove(testId);
+            if (lecturerId != null) {
+                messagingTemplate.convertAndSendToUser(lecturerId.toString(), "/queue/exam-presence", getPresence(testId));
+            }
+        }
+    }
+
+    private void recordActivity(Test test, User student, boolean autosave) {
+        if (test.getLecturer() == null) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        // Adding the taker inside compute keeps it atomic with removeTaker dropping an emptied test
+        presenceByTest.compute(test.getId(), (id, presence) -> {
+            TestPresence current = presence != null ? presence : new TestPresence(test.getLecturer().getId());
+            TakerState state = current.takers.computeIfAbsent(student.getId(), studentId -> {
+                changedTests.put(id, current.lecturerId);
+                return new TakerState(student.getFullName(), now, deadlineFor(test, now));
+            });
+            state.lastSeen = now;
+            if (autosave) {
+                state.lastAutosave = now;
+            }
+            return current;
+        });
+        expiryWheel.touch(new TakerKey(test.getId(), student.getId()));
+    }
+
+    private void removeTaker(Long testId, Long studentId) {
+        presenceByTest.computeIfPresent(testId, (id, presence) -> {
+            if (presence.takers.remove(studentId) != null) {
+                changedTests.put(id, presence.lecturerId);
+            }
+            return presence.takers.isEmpty() ? null : presence;
+        });
+    }
+
+    private LocalDateTime deadlineFor(Test test, LocalDateTime openedAt) {
+        LocalDateTime deadline = test.getEndTime();
+        if (test.getDurationMinutes() != null) {
+            LocalDateTime durationEnd = openedAt.plusMinutes(test.getDurationMinutes());
+            if (deadline == null || durationEnd.isBefore(deadline)) {
+                deadline = durationEnd;
+            }
+        }
+        return deadline;
+    }
+
+    private record TakerKey(Long testId, Long studentId) {
+    }
+
+    private static class TakerState {
+        private final String studentName;
+        private final LocalDateTime openedAt;
+        private final LocalDateTime deadline;
+        private volatile LocalDateTime lastSeen;
+        private volatile LocalDateTime lastAutosave;
+
+        TakerState(String studentName, LocalDateTime openedAt, LocalDateTime deadline) {
+            this.studentName = studentName;
+            this.openedAt = openedAt;
+            this.deadline = deadline;
+            this.lastSeen = openedAt;
+        }
+    }
+
+    private static class TestPresence {
+        private final Long lecturerId;
+        private final Map<Long, TakerState> takers = new ConcurrentHashMap<>();
+
+        TestPresence(Long lecturerId) {
+            this.lecturerId = lecturerId;
+        }
+
+        ExamPresenceDTO toDTO(Long testId) {
+            LocalDateTime now = LocalDateTime.now();
+            List<ExamTakerDTO> list = new ArrayList<>(takers.size());
+            takers.forEach((studentId, state) -> list.add(ExamTakerDTO.builder()
+                    .studentId(studentId)
+                    .studentName(state.studentName)
+                    .openedAt(state.openedAt)
+                    .lastSeen(state.lastSeen)
+                    .lastAutosave(state.lastAutosave)
+                    .secondsRemaining(state.deadline != null
+                            ? Math.max(0, Duration.between(now, state.deadline).getSeconds())
+                            : 0)
+                    .build()));
+            list.sort(Comparator.comparing(ExamTakerDTO::getStudentName, Comparator.nullsLast(String::compareTo)));
+
+            return ExamPresenceDTO.builder()
+                    .testId(testId)
+                    .activeTakers(list.size())
+                    .takers(list)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.classassess.classassess.service;
+
+import com.classassess.classassess.model.Role;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Session store local to this instance. Used for single-node deployments and development.
+ */
+@Service
+@ConditionalOnProperty(name = "app.session.store", havingValue = "memory", matchIfMissing = true)
+public class InMemorySessionStore implements SessionStore {
+
+    private final SessionActivityTracker tracker = new SessionActivityTracker(SessionService.ACTIVE_WINDOW_MINUTES);
+
+    // Token id -> expiry in epoch millis
+    private final ConcurrentHashMap<String, Long> revokedTokens = new ConcurrentHashMap<>();
+
+    @Override
+    public void recordActivity(String username, Role role, long nowMillis) {
+        tracker.record(username, role, nowMillis);
+    }
+
+    @Override
+    public long getActiveCount(long nowMillis) {
+        return tracker.getActiveCount(nowMillis);
+    }
+
+    @Override
+    public Map<String, Long> getActiveCountByRole(long nowMillis) {
+        return tracker.getActiveCountByRole(nowMillis);
+    }
+
+    @Override
+    public void revoke(String tokenId, long expiresAtMillis) {
+        revokedTokens.put(tokenId, expiresAtMillis);
+    }
+
+    @Override
+    public boolean isRevoked(String tokenId) {
+        return revokedTokens.containsKey(tokenId);
+    }
+
+    @Override
+    public void purgeExpired(long nowMillis) {
+        tracker.prune(nowMillis);
+        revokedTokens.values().removeIf(expiresAt -> expiresAt < nowMillis);
+    }
+}
@@ -0,0 +1,217 @@
+package com.classassess.classassess.service;
+
+import com.classassess.classassess.dto.ItemAnalysisDTO;
+import com.classassess.classassess.model.MCQOption;
+import com.classassess.classassess.model.Question;
+import com.classassess.classassess.model.QuestionType;
+import com.classassess.classassess.model.TestAnalyticsRollup;
+import com.classassess.classassess.repository.AnswerRepository;
+import com.classassess.classassess.repository.QuestionRepository;
+import com.classassess.classassess.repository.SubmissionRepository;
+import com.classassess.classassess.repository.TestAnalyticsRollupRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Per-question difficulty, discrimination and response breakdown for a test.
+ * Computed in one pass over the test's answers and cached per test. Each entry remembers the
+ * test's rollup row it was computed against, so once any instance has flushed new submissions
+ * into the rollup, every instance recomputes; the TTL bounds anything the rollup doesn't reflect.
+ */
+@Service
+@RequiredArgsConstructor
+public class ItemAnalysisService {
+    // Classic item analysis compares the top and bottom 27% of candidates
+    private static final double GROUP_FRACTION = 0.27;
+
+    private final AnswerRepository answerRepository;
+    private final SubmissionRepository submissionRepository;
+    private final QuestionRepository questionRepository;
+    private final TestAnalyticsRollupRepository testRollupRepository;
+
+    @Value("${app.analytics.item-analysis.ttl-ms:300000}")
+    private long ttlMs;
+
+    @Value("${app.analytics.item-analysis.max-size:500}")
+    private int maxSize;
+
+    private final ConcurrentHashMap<Long, CachedAnalysis> cache = new ConcurrentHashMap<>();
+    // Bumped by every local invalidation; a computation that overlapped one isn't cached
+    private final AtomicLong invalidations = new AtomicLong();
+
+    private record CachedAnalysis(SourceVersion source, long expiresAt, ItemAnalysisDTO analysis) {
+    }
+
+    private record SourceVersion(LocalDateTime updatedAt, long gradedCount, double scoreSum, long answerCount) {
+        static SourceVersion of(TestAnalyticsRollup rollup) {
+            return rollup == null ? null : new SourceVersion(rollup.getUpdatedAt(), rollup.getGradedCount(),
+                    rollup.getScoreSum(), rollup.getAnswerCount());
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public ItemAnalysisDTO getAnalysis(Long testId) {
+        long now = System.currentTimeMillis();
+        long invalidationsBefore = invalidations.get();
+        SourceVersion source = SourceVersion.of(testRollupRepository.findById(testId).orElse(null));
+        CachedAnalysis cached = cache.get(testId);
+        if (cached != null && cached.expiresAt() > now && Objects.equals(cached.source(), source)) {
+            return cached.analysis();
+        }
+
+        ItemAnalysisDTO analysis = compute(testId);
+        if (cache.size() >= maxSize) {
+            evict(now);
+        }
+        CachedAnalysis computed = new CachedAnalysis(source, now + ttlMs, analysis);
+        cache.compute(testId, (key, current) -> invalidations.get() == invalidationsBefore ? computed : current);
+        return analysis;
+    }
+
+    /**
+     * Drop the cached analysis after a test's submissions, scores or questions change
+     */
+    public void invalidate(Long testId) {
+        Runnable drop = () -> cache.compute(testId, (key, current) -> {
+            invalidations.incrementAndGet();
+            return null;
+        });
+        drop.run();
+        // Drop again after commit in case a read recomputed from the pre-commit rows in between
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    drop.run();
+                }
+            });
+        }
+    }
+
+    private void evict(long now) {
+        cache.values().removeIf(entry -> entry.expiresAt() <= now);
+
+        // Still full of live entries: drop the ones closest to expiring
+        int excess = cache.size() - maxSize + 1;
+        if (excess > 0) {
+            cache.entrySet().stream()
+                    .sorted(Comparator.comparingLong(e -> e.getValue().expiresAt()))
+                    .limit(excess)
+                    .map(Map.Entry::getKey)
+                    .toList()
+                    .forEach(cache::remove);
+        }
+    }
+
+    private ItemAnalysisDTO compute(Long testId) {
+        List<Question> questions = questionRepository.findByTestId(testId);
+
+        // Rank graded submissions by total score to find the top and bottom groups
+        List<Object[]> submissions = submissionRepository.getGradedSubmissionScores(testId);
+        submissions.sort(Comparator.comparingDouble(row -> row[1] != null ? ((Number) row[1]).doubleValue() : 0.0));
+        int groupSize = submissions.size() >= 2 ? Math.max(1, (int) Math.round(submissions.size() * GROUP_FRACTION)) : 0;
+        Set<Long> lowerGroup = new HashSet<>();
+        Set<Long> upperGroup = new HashSet<>();
+        for (int i = 0; i < groupSize; i++) {
+            lowerGroup.add((Long) submissions.get(i)[0]);
+            upperGroup.add((Long) submissions.get(submissions.size() - 1 - i)[0]);
+        }
+
+        Map<Long, QuestionStats> stats = new HashMap<>();
+        for (Question question : questions) {
+            stats.put(question.getId(), new QuestionStats(question));
+        }
+
+        try (Stream<Object[]> answers = answerRepository.streamGradedAnswersByTest(testId)) {
+            answers.forEach(row -> {
+                QuestionStats questionStats = stats.get((Long) row[0]);
+                if (questionStats != null) {
+                    Long submissionId = (Long) row[1];
+                    questionStats.add(row[2] != null ? ((Number) row[2]).doubleValue() : 0.0, (String) row[3],
+                            upperGroup.contains(submissionId), lowerGroup.contains(submissionId));
+                }
+            });
+        }
+
+        return ItemAnalysisDTO.builder()
+                .testId(testId)
+                .gradedSubmissions(submissions.size())
+                .questions(questions.stream()
+                        .map(question -> stats.get(question.getId()).toDTO())
+                        .collect(Collectors.toList()))
+                .build();
+    }
+
+    private static class QuestionStats {
+        private final Question question;
+        private final double points;
+        private final Map<String, Long> optionFrequencies;
+        private int responses;
+        private double ratioSum;
+        private double upperSum;
+        private int upperCount;
+        private double lowerSum;
+        private int lowerCount;
+
+        QuestionStats(Question question) {
+            this.question = question;
+            this.points = question.getPoints() != null && question.getPoints() > 0 ? question.getPoints() : 1;
+            if (question.getQuestionType() == QuestionType.MCQ) {
+                optionFrequencies = new LinkedHashMap<>();
+                for (MCQOption option : question.getOptions()) {
+                    optionFrequencies.put(option.getOptionText(), 0L);
+                }
+            } else {
+                optionFrequencies = null;
+            }
+        }
+
+        void add(double score, String answerText, boolean upper, boolean lower) {
+            double ratio = Math.min(Math.max(score / points, 0.0), 1.0);
+            responses++;
+            ratioSum += ratio;
+            if (upper) {
+                upperSum += ratio;
+                upperCount++;
+            }
+            if (lower) {
+                lowerSum += ratio;
+                lowerCount++;
+            }
+            if (optionFrequencies != null) {
+                String key = answerText == null || answerText.isBlank() ? "(no answer)" : answerText;
+                optionFrequencies.merge(key, 1L, Long::sum);
+            }
+        }
+
+        ItemAnalysisDTO.QuestionAnalysisDTO toDTO() {
+            Double difficulty = responses > 0 ? ratioSum / responses : null;
+            Double discrimination = upperCount > 0 && lowerCount > 0
+                    ? upperSum / upperCount - lowerSum / lowerCount
+                    : null;
+
+            return ItemAnalysisDTO.QuestionAnalysisDTO.builder()
+                    .questionId(question.getId())
+                    .questionText(question.getQuestionText())
+                    .questionType(question.getQuestionType() != null ? question.getQuestionType().name() : null)
+                    .points(question.getPoints())
+                    .responses(responses)
+                    .difficulty(difficulty)
+                    .discrimination(discrimination)
+                    .averageScore(difficulty != null ? difficulty * 100 : null)
+                    .optionFrequencies(optionFrequencies)
+                    .build();
+        }
+    }
+}
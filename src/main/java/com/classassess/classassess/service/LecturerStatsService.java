@@ -0,0 +1,126 @@
+package com.classassess.classassess.service;
+
+import com.classassess.classassess.model.SubmissionStatus;
+import com.classassess.classassess.repository.ModuleRepository;
+import com.classassess.classassess.repository.SubmissionRepository;
+import com.classassess.classassess.repository.TestRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Precomputed headline counts for the lecturer dashboard, served from memory.
+ * Every lecturer is recomputed on a schedule (active tests change as time passes);
+ * analytics change events drop a lecturer's snapshot so the next read recounts it.
+ * Events are local to the instance that published them, so elsewhere the refresh
+ * interval bounds how stale a snapshot can be. Each event bumps a generation, and a
+ * snapshot computed under an older generation is never stored.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LecturerStatsService {
+    private final TestRepository testRepository;
+    private final SubmissionRepository submissionRepository;
+    private final ModuleRepository moduleRepository;
+
+    private final ConcurrentHashMap<Long, LecturerStats> snapshots = new ConcurrentHashMap<>();
+    // Per-lecturer generations are only updated inside snapshots.compute for the same lecturer
+    private final ConcurrentHashMap<Long, Long> generations = new ConcurrentHashMap<>();
+    private final AtomicLong globalGeneration = new AtomicLong();
+
+    public record LecturerStats(long totalStudents, long activeTests, long pendingGrading, long completedTests) {
+        static final LecturerStats EMPTY = new LecturerStats(0, 0, 0, 0);
+
+        public Map<String, Object> toMap() {
+            Map<String, Object> stats = new HashMap<>();
+            stats.put("totalStudents", totalStudents);
+            stats.put("activeTests", activeTests);
+            stats.put("pendingGrading", pendingGrading);
+            stats.put("completedTests", completedTests);
+            return stats;
+        }
+    }
+
+    public LecturerStats getStats(Long lecturerId) {
+        LecturerStats stats = snapshots.get(lecturerId);
+        if (stats != null) {
+            return stats;
+        }
+        // Read the generations before counting so an event during the count wins
+        long global = globalGeneration.get();
+        long generation = generations.getOrDefault(lecturerId, 0L);
+        LecturerStats computed = compute(lecturerId).getOrDefault(lecturerId, LecturerStats.EMPTY);
+        store(lecturerId, computed, global, generation);
+        return computed;
+    }
+
+    @Scheduled(fixedDelayString = "${app.dashboard.stats.refresh-interval-ms:60000}")
+    public void refreshAll() {
+        long startedAt = System.currentTimeMillis();
+        long global = globalGeneration.get();
+        Map<Long, Long> generationsBefore = new HashMap<>(generations);
+        Map<Long, LecturerStats> computed = compute(null);
+
+        // Lecturers without any tests or students keep an empty snapshot rather than dropping out
+        snapshots.keySet().forEach(lecturerId -> computed.putIfAbsent(lecturerId, LecturerStats.EMPTY));
+        computed.forEach((lecturerId, stats) ->
+                store(lecturerId, stats, global, generationsBefore.getOrDefault(lecturerId, 0L)));
+        log.debug("Refreshed dashboard stats for {} lecturers in {} ms",
+                computed.size(), System.currentTimeMillis() - startedAt);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAnalyticsChanged(AnalyticsChangedEvent event) {
+        if (event.lecturerId() == null) {
+            // Bump before clearing, so a count that started earlier can't be stored after the clear
+            globalGeneration.incrementAndGet();
+            snapshots.clear();
+        } else {
+            snapshots.compute(event.lecturerId(), (key, current) -> {
+                generations.merge(key, 1L, Long::sum);
+                return null;
+            });
+        }
+    }
+
+    private void store(Long lecturerId, LecturerStats stats, long global, long generation) {
+        snapshots.compute(lecturerId, (key, current) ->
+                globalGeneration.get() == global && generations.getOrDefault(key, 0L) == generation
+                        ? stats : current);
+    }
+
+    /**
+     * Grouped counts for one lecturer, or every lecturer when lecturerId is null
+     */
+    private Map<Long, LecturerStats> compute(Long lecturerId) {
+        Map<Long, long[]> counts = new HashMap<>();
+
+        for (Object[] row : moduleRepository.countDistinctStudentsGroupedByLecturer(lecturerId)) {
+            countsFor(counts, row[0])[0] = ((Number) row[1]).longValue();
+        }
+        for (Object[] row : testRepository.countActiveTestsByLecturer(lecturerId)) {
+            countsFor(counts, row[0])[1] = ((Number) row[1]).longValue();
+        }
+        for (Object[] row : submissionRepository.countByLecturerAndStatus(lecturerId)) {
+            int column = row[1] == SubmissionStatus.SUBMITTED ? 2 : 3;
+            countsFor(counts, row[0])[column] = ((Number) row[2]).longValue();
+        }
+
+        Map<Long, LecturerStats> stats = new HashMap<>();
+        counts.forEach((id, values) -> stats.put(id, new LecturerStats(values[0], values[1], values[2], values[3])));
+        return stats;
+    }
+
+    private static long[] countsFor(Map<Long, long[]> counts, Object lecturerId) {
+        return counts.computeIfAbsent((Long) lecturerId, id -> new long[4]);
+    }
+}
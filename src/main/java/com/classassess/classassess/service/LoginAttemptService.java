@@ -0,0 +1,100 @@
+package com.classassess.classassess.service;
+
+import com.classassess.classassess.exception.TooManyRequestsException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Throttles failed logins before any password hashing is done. Failures are counted per account
+ * and client address together, so guessing from one address can't lock the owner out from another;
+ * past the free attempts each further failure doubles the wait, up to a cap. A per-address count
+ * in a fixed window bounds guessing across many accounts.
+ */
+@Service
+public class LoginAttemptService {
+
+    @Value("${app.security.login.max-failures-per-account:5}")
+    private int maxFailuresPerAccount;
+
+    @Value("${app.security.login.backoff-base-ms:30000}")
+    private long backoffBaseMs;
+
+    @Value("${app.security.login.backoff-max-ms:900000}")
+    private long backoffMaxMs;
+
+    @Value("${app.security.login.max-failures-per-ip:200}")
+    private int maxFailuresPerIp;
+
+    @Value("${app.security.login.window-ms:900000}")
+    private long windowMs;
+
+    private record Failures(long since, long last, int count) {
+    }
+
+    private final ConcurrentHashMap<String, Failures> accountFailures = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Failures> ipFailures = new ConcurrentHashMap<>();
+
+    /**
+     * @throws TooManyRequestsException if this account has failed too often from this address, or the address overall
+     */
+    public void checkAllowed(String email, String clientIp) {
+        long now = System.currentTimeMillis();
+        String accountKey = accountKey(email, clientIp);
+        if ((accountKey != null && isBackingOff(accountFailures.get(accountKey), now))
+                || (clientIp != null && failuresInWindow(ipFailures.get(clientIp), now) >= maxFailuresPerIp)) {
+            throw new TooManyRequestsException("Too many failed sign-in attempts, please try again later");
+        }
+    }
+
+    public void recordFailure(String email, String clientIp) {
+        long now = System.currentTimeMillis();
+        String accountKey = accountKey(email, clientIp);
+        if (accountKey != null) {
+            // The backoff only resets after a full window without failures
+            accountFailures.compute(accountKey, (key, failures) -> failures == null || now - failures.last() >= windowMs
+                    ? new Failures(now, now, 1)
+                    : new Failures(failures.since(), now, failures.count() + 1));
+        }
+        if (clientIp != null) {
+            ipFailures.compute(clientIp, (key, failures) -> failures == null || now - failures.since() >= windowMs
+                    ? new Failures(now, now, 1)
+                    : new Failures(failures.since(), now, failures.count() + 1));
+        }
+    }
+
+    public void recordSuccess(String email, String clientIp) {
+        String accountKey = accountKey(email, clientIp);
+        if (accountKey != null) {
+            accountFailures.remove(accountKey);
+        }
+    }
+
+    @Scheduled(fixedDelay = 5 * 60 * 1000)
+    public void purgeExpired() {
+        long cutoff = System.currentTimeMillis() - windowMs;
+        accountFailures.values().removeIf(failures -> failures.last() < cutoff);
+        ipFailures.values().removeIf(failures -> failures.since() < cutoff);
+    }
+
+    private boolean isBackingOff(Failures failures, long now) {
+        if (failures == null || failures.count() < maxFailuresPerAccount || now - failures.last() >= windowMs) {
+            return false;
+        }
+        // 1x the base after the last free attempt, then 2x, 4x, ... up to the cap
+        int doublings = Math.min(failures.count() - maxFailuresPerAccount, 30);
+        long backoff = Math.min(backoffMaxMs, backoffBaseMs << doublings);
+        return now - failures.last() < backoff;
+    }
+
+    private int failuresInWindow(Failures failures, long now) {
+        return failures != null && now - failures.since() < windowMs ? failures.count() : 0;
+    }
+
+    private static String accountKey(String email, String clientIp) {
+        return email != null ? email.trim().toLowerCase(Locale.ROOT) + "|" + clientIp : null;
+    }
+}
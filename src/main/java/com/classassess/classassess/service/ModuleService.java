@@ -6,8 +6,11 @@ import com.classassess.classassess.model.*;
 import com.classassess.classassess.model.Module;
 import com.classassess.classassess.repository.*;
 import com.classassess.classassess.exception.ResourceNotFoundException;
+import com.classassess.classassess.security.ModuleAccessResolver;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
@@ -27,6 +30,7 @@ import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
+@Slf4j
 public class ModuleService {
     private final ModuleRepository moduleRepository;
     private final ModuleStudentRepository moduleStudentRepository;
@@ -39,6 +43,10 @@ public class ModuleService {
     private final NotificationService notificationService;
     private final UserRepository userRepository;
     private final EmailService emailService;
+    private final DashboardUpdateService dashboardUpdateService;
+    private final AnalyticsRollupService analyticsRollupService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ModuleAccessResolver moduleAccessResolver;
 
 
     @Transactional
@@ -76,10 +84,10 @@ public class ModuleService {
             }
 
             Module savedModule = moduleRepository.save(module);
+            moduleAccessResolver.invalidate(savedModule.getLecturer().getId());
             return toDTO(savedModule);
         } catch (Exception e) {
-            System.err.println("Error in createModule service: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error in createModule service", e);
             throw e;
         }
     }
@@ -145,7 +153,12 @@ public class ModuleService {
             }
         }
 
-        return toDTO(moduleRepository.save(module));
+        Module savedModule = moduleRepository.save(module);
+        // The previous and new lecturer's taught modules may both have changed
+        moduleAccessResolver.invalidateAll();
+        // Module codes and titles appear on the analytics dashboards
+        eventPublisher.publishEvent(new AnalyticsChangedEvent(null));
+        return toDTO(savedModule);
     }
 
     @Transactional
@@ -166,14 +179,16 @@ public class ModuleService {
 
             // Proceed with deletion
             moduleRepository.delete(module);
-            System.out.println("Module deleted successfully: " + id);
+            if (module.getLecturer() != null) {
+                moduleAccessResolver.invalidate(module.getLecturer().getId());
+            }
+            log.debug("Module deleted successfully: {}", id);
         } catch (ResourceNotFoundException e) {
             throw e;
         } catch (IllegalStateException e) {
             throw e;
         } catch (Exception e) {
-            System.err.println("Unexpected error deleting module: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Unexpected error deleting module", e);
             throw new RuntimeException("Failed to delete module: " + e.getMessage());
         }
     }
@@ -264,6 +279,10 @@ public class ModuleService {
      * Safe DTO conversion for admin views that doesn't require current user context
      */
     private ModuleDTO toDTOForAdmin(Module module) {
+        return toDTOForAdmin(module, moduleStudentRepository.countByModule(module));
+    }
+
+    private ModuleDTO toDTOForAdmin(Module module, Long studentCount) {
         try {
             ModuleDTO dto = new ModuleDTO();
             dto.setId(module.getId());
@@ -287,14 +306,11 @@ public class ModuleService {
             dto.setIsEnrolled(false);
             dto.setProgress(0.0);
 
-            // Get student count
-            Long studentCount = moduleStudentRepository.countByModule(module);
             dto.setStudentCount(studentCount != null ? studentCount : 0L);
 
             return dto;
         } catch (Exception e) {
-            System.err.println("Error in toDTOForAdmin: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error in toDTOForAdmin", e);
             // Return basic DTO with essential info to prevent complete failure
             ModuleDTO basicDto = new ModuleDTO();
             basicDto.setId(module.getId());
@@ -327,7 +343,7 @@ public class ModuleService {
 
             try {
                 User currentUser = userService.getCurrentUser();
-                boolean isEnrolled = moduleStudentRepository.existsByModuleAndStudent(module, currentUser);
+                boolean isEnrolled = moduleAccessResolver.isEnrolled(currentUser.getId(), module.getId());
                 dto.setIsEnrolled(isEnrolled);
 
                 if (isEnrolled) {
@@ -340,7 +356,7 @@ public class ModuleService {
                 }
             } catch (Exception e) {
                 // Handle user not found or authentication issues
-                System.out.println("Could not get current user for module DTO: " + e.getMessage());
+                log.warn("Could not get current user for module DTO: {}", e.getMessage());
                 dto.setIsEnrolled(false);
                 dto.setProgress(0.0);
             }
@@ -349,8 +365,7 @@ public class ModuleService {
             dto.setStudentCount(studentCount != null ? studentCount : 0L);
             return dto;
         } catch (Exception e) {
-            System.err.println("Error in toDTO: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error in toDTO", e);
             // Return basic DTO with essential info to prevent complete failure
             ModuleDTO basicDto = new ModuleDTO();
             basicDto.setId(module.getId());
@@ -425,6 +440,12 @@ public class ModuleService {
 
             ModuleStudent enrollment = new ModuleStudent(module, student);
             moduleStudentRepository.save(enrollment);
+            moduleAccessResolver.invalidate(student.getId());
+            analyticsRollupService.recordEnrollment(moduleId);
+
+            if (module.getLecturer() != null) {
+                dashboardUpdateService.recordEnrollment(module.getLecturer().getId());
+            }
         }
     }
 
@@ -450,7 +471,7 @@ public class ModuleService {
     @Transactional
     public ModuleDTO toggleModuleStatus(Long id, boolean isActive) {
         try {
-            System.out.println("Toggling module status for id: " + id + " to " + isActive);
+            log.debug("Toggling module status for id: {} to {}", id, isActive);
             Module module = moduleRepository.findById(id)
                     .orElseThrow(() -> new ResourceNotFoundException("Module not found"));
 
@@ -458,7 +479,7 @@ public class ModuleService {
             Boolean wasActive = module.getActive();
 
             // Explicitly print current status before change
-            System.out.println("Current active status: " + module.getActive());
+            log.debug("Current active status: {}", module.getActive());
 
             // Set the new status
             module.setActive(isActive);
@@ -483,9 +504,12 @@ public class ModuleService {
 
             // Save and flush to ensure immediate persistence
             Module savedModule = moduleRepository.saveAndFlush(module);
+            moduleAccessResolver.invalidateAll();
+            // Cancelling or restoring the module's tests changes active test counts
+            eventPublisher.publishEvent(new AnalyticsChangedEvent(null));
 
             // Verify the change took effect
-            System.out.println("New active status after save: " + savedModule.getActive());
+            log.debug("New active status after save: {}", savedModule.getActive());
 
             // If deactivating a previously active module, send deactivation notifications
             if (wasActive != null && wasActive && !isActive) {
@@ -503,7 +527,7 @@ public class ModuleService {
                     }
                 } catch (Exception e) {
                     // Log but don't fail the operation if notification fails
-                    System.err.println("Failed to send module deactivation notifications: " + e.getMessage());
+                    log.warn("Failed to send module deactivation notifications: {}", e.getMessage());
                 }
             }
 // If activating a previously inactive module, send activation notifications
@@ -522,30 +546,30 @@ public class ModuleService {
                     }
                 } catch (Exception e) {
                     // Log but don't fail the operation if notification fails
-                    System.err.println("Failed to send module activation notifications: " + e.getMessage());
+                    log.warn("Failed to send module activation notifications: {}", e.getMessage());
                 }
             }
             // Use the admin-specific conversion that doesn't rely on authentication context
             return toDTOForAdmin(savedModule);
         } catch (Exception e) {
-            System.err.println("Error in toggleModuleStatus: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error in toggleModuleStatus", e);
             throw e;
         }
     }
 
     public List<ModuleDTO> getAllModulesWithDetails() {
-        System.out.println("getAllModulesWithDetails started");
+        log.debug("getAllModulesWithDetails started");
         try {
             List<Module> modules = moduleRepository.findAll();
-            System.out.println("Found " + modules.size() + " modules");
+            log.debug("Found {} modules", modules.size());
 
+            // One grouped query for all student counts instead of one per module
+            ModuleTotals totals = new ModuleTotals(moduleRepository.countStudentsGroupedByModule());
             return modules.stream()
-                    .map(this::toDTOForAdmin)  // Use admin-specific conversion
+                    .map(module -> toDTOForAdmin(module, totals.getStudentCount(module.getId())))  // Use admin-specific conversion
                     .collect(Collectors.toList());
         } catch (Exception e) {
-            System.err.println("Error in getAllModulesWithDetails: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error in getAllModulesWithDetails", e);
             throw e;
         }
     }
@@ -557,17 +581,10 @@ public class ModuleService {
             long inactiveModules = totalModules - activeModules;
 
             // Find the module with most students
-            Module mostPopularModule = null;
-            long maxStudents = 0;
-
-            List<Module> allModules = moduleRepository.findAll();
-            for (Module module : allModules) {
-                Long studentCount = moduleStudentRepository.countByModule(module);
-                if (studentCount != null && studentCount > maxStudents) {
-                    maxStudents = studentCount;
-                    mostPopularModule = module;
-                }
-            }
+            ModuleTotals totals = new ModuleTotals(moduleRepository.countStudentsGroupedByModule());
+            long mostPopularModuleId = totals.getMostPopularModuleId();
+            long maxStudents = mostPopularModuleId >= 0 ? totals.getStudentCount(mostPopularModuleId) : 0;
+            Module mostPopularModule = maxStudents > 0 ? moduleRepository.findById(mostPopularModuleId).orElse(null) : null;
 
             long totalEnrollments = moduleStudentRepository.count();
 
@@ -580,8 +597,7 @@ public class ModuleService {
                     .mostPopularModuleCode(mostPopularModule != null ? mostPopularModule.getCode() : "None")
                     .build();
         } catch (Exception e) {
-            System.err.println("Error in getModuleStats: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error in getModuleStats", e);
 
             // Return default stats to prevent UI errors
             return ModuleStatsDTO.builder()
@@ -603,7 +619,7 @@ public class ModuleService {
     @Transactional
     public ModuleDTO toggleModuleStatus(Long id, boolean isActive, String reason) {
         try {
-            System.out.println("Toggling module status for id: " + id + " to " + isActive);
+            log.debug("Toggling module status for id: {} to {}", id, isActive);
             Module module = moduleRepository.findById(id)
                     .orElseThrow(() -> new ResourceNotFoundException("Module not found"));
 
@@ -614,6 +630,7 @@ public class ModuleService {
                 module.setActive(isActive);
                 module.setLastStatusChange(LocalDateTime.now());
                 Module savedModule = moduleRepository.save(module);
+                moduleAccessResolver.invalidateAll();
 
                 // Record the change in history
                 ModuleStatusHistory history = new ModuleStatusHistory(
@@ -627,8 +644,7 @@ public class ModuleService {
 
             return toDTOForAdmin(module);
         } catch (Exception e) {
-            System.err.println("Error in toggleModuleStatus: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error in toggleModuleStatus", e);
             throw e;
         }
     }
@@ -703,7 +719,7 @@ public class ModuleService {
             notificationService.handleResourceNotification(savedResource, module);
         } catch (Exception e) {
             // Log but don't fail the operation if notification fails
-            System.err.println("Failed to send resource notifications: " + e.getMessage());
+            log.warn("Failed to send resource notifications: {}", e.getMessage());
         }
 
         // Return DTO
@@ -753,7 +769,7 @@ public class ModuleService {
             notificationService.handleAnnouncementNotification(savedAnnouncement, module);
         } catch (Exception e) {
             // Log but don't fail the operation if notification fails
-            System.err.println("Failed to send announcement notifications: " + e.getMessage());
+            log.warn("Failed to send announcement notifications: {}", e.getMessage());
         }
 
         return AnnouncementDTO.builder()
@@ -780,8 +796,9 @@ public class ModuleService {
     }
 
     public List<ModuleDTO> getAllActiveModules() {
+        ModuleTotals totals = new ModuleTotals(moduleRepository.countStudentsGroupedByModule());
         return moduleRepository.findByActiveTrue().stream()
-                .map(this::toDTOForAdmin) // Use the admin DTO converter that doesn't require authentication
+                .map(module -> toDTOForAdmin(module, totals.getStudentCount(module.getId()))) // Use the admin DTO converter that doesn't require authentication
                 .collect(Collectors.toList());
     }
 }
\ No newline at end of file
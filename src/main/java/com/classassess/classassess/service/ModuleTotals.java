@@ -0,0 +1,53 @@
+package com.classassess.classassess.service;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Student counts for every module, fetched in one grouped query. Modules without students have no row.
+ * Held in parallel primitive arrays sorted by module id so lookups don't box keys.
+ */
+public class ModuleTotals {
+
+    private final long[] moduleIds;
+    private final long[] studentCounts;
+
+    /**
+     * @param rows moduleId, studentCount
+     */
+    public ModuleTotals(List<Object[]> rows) {
+        Object[][] sorted = rows.toArray(new Object[0][]);
+        Arrays.sort(sorted, Comparator.comparingLong(row -> ((Number) row[0]).longValue()));
+
+        int size = sorted.length;
+        moduleIds = new long[size];
+        studentCounts = new long[size];
+        for (int i = 0; i < size; i++) {
+            moduleIds[i] = ((Number) sorted[i][0]).longValue();
+            studentCounts[i] = toLong(sorted[i][1]);
+        }
+    }
+
+    public long getStudentCount(long moduleId) {
+        int index = Arrays.binarySearch(moduleIds, moduleId);
+        return index >= 0 ? studentCounts[index] : 0;
+    }
+
+    /**
+     * Id of the module with the most students, or -1 when there are no modules
+     */
+    public long getMostPopularModuleId() {
+        int best = -1;
+        for (int i = 0; i < moduleIds.length; i++) {
+            if (best < 0 || studentCounts[i] > studentCounts[best]) {
+                best = i;
+            }
+        }
+        return best >= 0 ? moduleIds[best] : -1;
+    }
+
+    private static long toLong(Object value) {
+        return value != null ? ((Number) value).longValue() : 0;
+    }
+}
@@ -0,0 +1,107 @@
+package com.classassess.classassess.service;
+
+import com.classassess.classassess.exception.TooManyRequestsException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Password verification for logins on a bounded pool, so a login storm queues instead of
+ * saturating every core. Also tells the caller when a stored hash was made with a different
+ * cost than the one configured, so it can be rehashed while the plain password is at hand.
+ */
+@Service
+@Slf4j
+public class PasswordHashingService {
+
+    private static final Pattern BCRYPT_COST = Pattern.compile("^\\$2[abxy]?\\$(\\d{2})\\$");
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolTaskExecutor verifyExecutor;
+
+    @Value("${app.security.password.bcrypt-strength:10}")
+    private int bcryptStrength;
+
+    @Value("${app.security.password.verify-timeout-ms:5000}")
+    private long verifyTimeoutMs;
+
+    public PasswordHashingService(PasswordEncoder passwordEncoder,
+                                  @Qualifier("passwordVerifyExecutor") ThreadPoolTaskExecutor verifyExecutor) {
+        this.passwordEncoder = passwordEncoder;
+        this.verifyExecutor = verifyExecutor;
+    }
+
+    public String hash(String rawPassword) {
+        return passwordEncoder.encode(rawPassword);
+    }
+
+    /**
+     * Check the password on the verification pool
+     *
+     * @throws TooManyRequestsException if the pool is full or the check doesn't finish in time
+     */
+    public boolean verify(String rawPassword, String storedHash) {
+        if (rawPassword == null || storedHash == null) {
+            return false;
+        }
+        Future<Boolean> result;
+        try {
+            result = verifyExecutor.submit(() -> passwordEncoder.matches(rawPassword, storedHash));
+        } catch (RejectedExecutionException e) {
+            throw new TooManyRequestsException("Too many sign-in attempts right now, please try again shortly");
+        }
+        try {
+            return result.get(verifyTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            result.cancel(true);
+            throw new TooManyRequestsException("Too many sign-in attempts right now, please try again shortly");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Password verification interrupted");
+        } catch (ExecutionException e) {
+            log.error("Password verification failed", e.getCause());
+            return false;
+        }
+    }
+
+    /**
+     * Hash the password again on the verification pool and hand the result to the caller.
+     * Skipped when the pool is full; the next login will try again.
+     */
+    public void rehashInBackground(String rawPassword, Consumer<String> onHashed) {
+        try {
+            verifyExecutor.execute(() -> {
+                try {
+                    onHashed.accept(passwordEncoder.encode(rawPassword));
+                } catch (Exception e) {
+                    log.warn("Password rehash failed: {}", e.getMessage());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            log.debug("Verification pool full, skipping password rehash");
+        }
+    }
+
+    /**
+     * Whether the hash should be replaced because the configured cost has changed since it was made
+     */
+    public boolean needsRehash(String storedHash) {
+        if (storedHash == null) {
+            return false;
+        }
+        Matcher matcher = BCRYPT_COST.matcher(storedHash);
+        return matcher.find() && Integer.parseInt(matcher.group(1)) != bcryptStrength;
+    }
+}
@@ -0,0 +1,67 @@
+package com.classassess.classassess.service;
+
+import com.classassess.classassess.dto.ScoreDistributionDTO;
+import com.classassess.classassess.model.ScoreDistribution;
+import com.classassess.classassess.repository.ScoreDistributionRepository;
+import com.classassess.classassess.repository.SubmissionRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+/**
+ * Per-test score sketches, kept alongside the analytics rollups.
+ * Module distributions are produced by merging the sketches of the module's tests.
+ */
+@Service
+@RequiredArgsConstructor
+public class ScoreDistributionService {
+    private static final int HISTOGRAM_BIN_WIDTH = 10;
+
+    private final ScoreDistributionRepository scoreDistributionRepository;
+    private final SubmissionRepository submissionRepository;
+
+    /**
+     * Rebuild one test's sketch from its graded submissions. Locks the sketch row, so it runs
+     * in the rollup flush rather than inside a grading transaction.
+     */
+    @Transactional
+    public void refreshTest(Long testId, Long moduleId, Long lecturerId) {
+        scoreDistributionRepository.ensureExists(testId, moduleId, lecturerId);
+        ScoreDistribution distribution = scoreDistributionRepository.findByIdForUpdate(testId);
+
+        ScoreSketch sketch = new ScoreSketch();
+        for (Object[] row : submissionRepository.getGradedScores(testId)) {
+            sketch.add(row[1] != null ? ((Number) row[1]).doubleValue() : 0.0);
+        }
+        distribution.setSketch(sketch.toBytes());
+        distribution.setUpdatedAt(LocalDateTime.now());
+        scoreDistributionRepository.save(distribution);
+    }
+
+    public ScoreDistributionDTO getTestDistribution(Long testId) {
+        return scoreDistributionRepository.findById(testId)
+                .map(distribution -> toDTO(ScoreSketch.fromBytes(distribution.getSketch())))
+                .orElseGet(() -> toDTO(new ScoreSketch()));
+    }
+
+    public ScoreDistributionDTO getModuleDistribution(Long moduleId) {
+        ScoreSketch merged = new ScoreSketch();
+        for (ScoreDistribution distribution : scoreDistributionRepository.findByModuleId(moduleId)) {
+            merged.merge(ScoreSketch.fromBytes(distribution.getSketch()));
+        }
+        return toDTO(merged);
+    }
+
+    private ScoreDistributionDTO toDTO(ScoreSketch sketch) {
+        return ScoreDistributionDTO.builder()
+                .gradedCount(sketch.getCount())
+                .median(sketch.quantile(0.5))
+                .p10(sketch.quantile(0.1))
+                .p90(sketch.quantile(0.9))
+                .binWidth(HISTOGRAM_BIN_WIDTH)
+                .histogram(sketch.histogram(HISTOGRAM_BIN_WIDTH))
+                .build();
+    }
+}
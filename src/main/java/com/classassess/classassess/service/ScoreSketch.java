@@ -0,0 +1,112 @@
+package com.classassess.classassess.service;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Mergeable distribution of percentage scores.
+ * Scores are bounded to 0-100, so a fixed array of half-point buckets gives quantiles
+ * within 0.5 of the exact value with O(1) updates and merges by adding counts.
+ */
+public class ScoreSketch {
+
+    private static final double BUCKET_WIDTH = 0.5;
+    private static final int BUCKETS = (int) (100 / BUCKET_WIDTH) + 1;
+
+    private final long[] counts = new long[BUCKETS];
+    private long total;
+
+    public void add(double score) {
+        counts[bucketOf(score)]++;
+        total++;
+    }
+
+    public void merge(ScoreSketch other) {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] += other.counts[i];
+        }
+        total += other.total;
+    }
+
+    public long getCount() {
+        return total;
+    }
+
+    /**
+     * Approximate score at the given quantile (0.5 for the median), or null when empty
+     */
+    public Double quantile(double q) {
+        if (total == 0) {
+            return null;
+        }
+        long rank = (long) Math.ceil(q * total);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= Math.max(rank, 1)) {
+                return Math.min(i * BUCKET_WIDTH, 100.0);
+            }
+        }
+        return 100.0;
+    }
+
+    /**
+     * Counts per bin of the given width, the last bin including 100
+     */
+    public List<Long> histogram(int binWidth) {
+        int bins = (100 + binWidth - 1) / binWidth;
+        long[] histogram = new long[bins];
+        for (int i = 0; i < BUCKETS; i++) {
+            int bin = Math.min((int) (i * BUCKET_WIDTH) / binWidth, bins - 1);
+            histogram[bin] += counts[i];
+        }
+
+        List<Long> result = new ArrayList<>(bins);
+        for (long count : histogram) {
+            result.add(count);
+        }
+        return result;
+    }
+
+    /**
+     * Sparse encoding: (bucket, count) for each non-empty bucket
+     */
+    public byte[] toBytes() {
+        int nonEmpty = 0;
+        for (long count : counts) {
+            if (count > 0) {
+                nonEmpty++;
+            }
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(nonEmpty * (Short.BYTES + Integer.BYTES));
+        for (int i = 0; i < BUCKETS; i++) {
+            if (counts[i] > 0) {
+                buffer.putShort((short) i);
+                buffer.putInt((int) counts[i]);
+            }
+        }
+        return buffer.array();
+    }
+
+    public static ScoreSketch fromBytes(byte[] bytes) {
+        ScoreSketch sketch = new ScoreSketch();
+        if (bytes == null) {
+            return sketch;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        while (buffer.remaining() >= Short.BYTES + Integer.BYTES) {
+            int bucket = buffer.getShort();
+            int count = buffer.getInt();
+            sketch.counts[bucket] += count;
+            sketch.total += count;
+        }
+        return sketch;
+    }
+
+    private static int bucketOf(double score) {
+        double clamped = Math.min(Math.max(score, 0.0), 100.0);
+        return (int) (clamped / BUCKET_WIDTH);
+    }
+}
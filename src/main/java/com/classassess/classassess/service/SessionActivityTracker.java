@@ -0,0 +1,155 @@
+package com.classassess.classassess.service;
+
+import com.classassess.classassess.model.Role;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts users active within a sliding window using a ring of per-minute buckets.
+ * Each user is counted in the bucket of the minute they were last seen, so recording
+ * only touches shared state when a user moves to a new minute, and the active count
+ * is a sum over a fixed number of buckets. Counts are approximate around bucket turnover.
+ */
+public class SessionActivityTracker {
+    // Counter slot for tokens without a recognised role claim
+    private static final int UNKNOWN_ROLE = Role.values().length;
+
+    private final int windowMinutes;
+    private final Bucket[] ring;
+    private final ConcurrentHashMap<String, Seen> lastSeen = new ConcurrentHashMap<>();
+
+    private record Seen(long minute, int role) {
+    }
+
+    private static class Bucket {
+        private volatile long minute = -1;
+        private final LongAdder[] perRole = new LongAdder[UNKNOWN_ROLE + 1];
+
+        Bucket() {
+            for (int i = 0; i < perRole.length; i++) {
+                perRole[i] = new LongAdder();
+            }
+        }
+    }
+
+    public SessionActivityTracker(int windowMinutes) {
+        this.windowMinutes = windowMinutes;
+        // One spare bucket so the one being reused is never still inside the window
+        this.ring = new Bucket[windowMinutes + 1];
+        for (int i = 0; i < ring.length; i++) {
+            ring[i] = new Bucket();
+        }
+    }
+
+    public void record(String username, Role role, long nowMillis) {
+        long minute = nowMillis / 60_000;
+        int roleIndex = role != null ? role.ordinal() : UNKNOWN_ROLE;
+
+        Seen previous = lastSeen.get(username);
+        // Same minute and role: nothing to move, which is the common case for busy users
+        if (previous != null && previous.minute() == minute && previous.role() == roleIndex) {
+            return;
+        }
+
+        Seen next = new Seen(minute, roleIndex);
+        boolean moved = previous == null
+                ? lastSeen.putIfAbsent(username, next) == null
+                : lastSeen.replace(username, previous, next);
+        if (!moved) {
+            // Another request for the same user got there first and did the move
+            return;
+        }
+        if (previous != null) {
+            decrement(previous);
+        }
+        bucketFor(minute).perRole[roleIndex].increment();
+    }
+
+    public void remove(String username) {
+        Seen previous = lastSeen.remove(username);
+        if (previous != null) {
+            decrement(previous);
+        }
+    }
+
+    public long getActiveCount(long nowMillis) {
+        long total = 0;
+        for (long count : countsByRoleIndex(nowMillis)) {
+            total += count;
+        }
+        return total;
+    }
+
+    public Map<String, Long> getActiveCountByRole(long nowMillis) {
+        long[] counts = countsByRoleIndex(nowMillis);
+        Map<String, Long> byRole = new LinkedHashMap<>();
+        for (Role role : Role.values()) {
+            byRole.put(role.name(), counts[role.ordinal()]);
+        }
+        if (counts[UNKNOWN_ROLE] > 0) {
+            byRole.put("UNKNOWN", counts[UNKNOWN_ROLE]);
+        }
+        return byRole;
+    }
+
+    /**
+     * Drop users who haven't been seen within the window so the map doesn't grow without bound.
+     * Their buckets have already left the window, so no counters change.
+     */
+    public void prune(long nowMillis) {
+        long oldest = nowMillis / 60_000 - windowMinutes + 1;
+        lastSeen.values().removeIf(seen -> seen.minute() < oldest);
+    }
+
+    public void clear() {
+        lastSeen.clear();
+        for (Bucket bucket : ring) {
+            synchronized (bucket) {
+                bucket.minute = -1;
+                for (LongAdder adder : bucket.perRole) {
+                    adder.reset();
+                }
+            }
+        }
+    }
+
+    private long[] countsByRoleIndex(long nowMillis) {
+        long currentMinute = nowMillis / 60_000;
+        long[] counts = new long[UNKNOWN_ROLE + 1];
+        for (Bucket bucket : ring) {
+            long minute = bucket.minute;
+            if (minute > currentMinute - windowMinutes && minute <= currentMinute) {
+                for (int i = 0; i < counts.length; i++) {
+                    counts[i] += bucket.perRole[i].sum();
+                }
+            }
+        }
+        return counts;
+    }
+
+    private void decrement(Seen seen) {
+        Bucket bucket = ring[(int) (seen.minute() % ring.length)];
+        // Only if the bucket still holds that minute; once reused its counts were already reset
+        if (bucket.minute == seen.minute()) {
+            bucket.perRole[seen.role()].decrement();
+        }
+    }
+
+    private Bucket bucketFor(long minute) {
+        Bucket bucket = ring[(int) (minute % ring.length)];
+        if (bucket.minute != minute) {
+            synchronized (bucket) {
+                if (bucket.minute != minute) {
+                    for (LongAdder adder : bucket.perRole) {
+                        adder.reset();
+                    }
+                    bucket.minute = minute;
+                }
+            }
+        }
+        return bucket;
+    }
+}
@@ -1,63 +1,91 @@
 package com.classassess.classassess.service;
 
+import com.classassess.classassess.model.Role;
 import com.classassess.classassess.security.JwtService;
+import com.classassess.classassess.security.ValidatedToken;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.Map;
 
 @Service
 public class SessionService {
 
-    private final ConcurrentHashMap<String, Long> activeSessions = new ConcurrentHashMap<>();
+    // Users seen within the last 30 minutes count as active
+    static final int ACTIVE_WINDOW_MINUTES = 30;
 
     @Autowired
     private JwtService jwtService;
 
+    @Autowired
+    private SessionStore sessionStore;
+
     public void recordSession(String token) {
         if (token != null && token.startsWith("Bearer ")) {
             String jwt = token.substring(7);
             try {
-                String username = jwtService.extractUsername(jwt);
-                if (username != null) {
-                    activeSessions.put(username, System.currentTimeMillis());
-                }
+                recordSession(jwtService.parse(jwt));
             } catch (Exception e) {
                 // Invalid token, ignore
             }
         }
     }
 
+    /**
+     * Record activity for a token the authentication filter has already parsed
+     */
+    public void recordSession(ValidatedToken token) {
+        String username = token.getUsername();
+        if (username != null) {
+            sessionStore.recordActivity(username, roleOf(token), System.currentTimeMillis());
+        }
+    }
+
+    /**
+     * Log the token out: deny it on every instance until it expires.
+     * The user's activity is left to age out of the window, since they may have other sessions.
+     */
     public void removeSession(String token) {
         if (token != null && token.startsWith("Bearer ")) {
             String jwt = token.substring(7);
             try {
-                String username = jwtService.extractUsername(jwt);
-                if (username != null) {
-                    activeSessions.remove(username);
+                ValidatedToken validated = jwtService.parse(jwt);
+                if (validated.getTokenId() != null && validated.getExpiration() != null) {
+                    sessionStore.revoke(validated.getTokenId(), validated.getExpiration().getTime());
                 }
             } catch (Exception e) {
-                // Invalid token, ignore
+                // Invalid or already expired token, nothing to revoke
             }
         }
     }
 
+    public boolean isRevoked(ValidatedToken token) {
+        return token.getTokenId() != null && sessionStore.isRevoked(token.getTokenId());
+    }
+
     public int getActiveSessionCount() {
-        // Remove sessions older than 30 minutes
-        long thirtyMinutesAgo = System.currentTimeMillis() - (30 * 60 * 1000);
-        activeSessions.entrySet().removeIf(entry -> entry.getValue() < thirtyMinutesAgo);
+        return (int) sessionStore.getActiveCount(System.currentTimeMillis());
+    }
 
-        return activeSessions.size();
+    public Map<String, Long> getActiveSessionCountByRole() {
+        return sessionStore.getActiveCountByRole(System.currentTimeMillis());
     }
 
-    // For testing/demo purposes
-    public void setActiveSessionCount(int count) {
-        // Clear existing sessions
-        activeSessions.clear();
+    @Scheduled(fixedDelay = 5 * 60 * 1000)
+    public void purgeExpiredSessions() {
+        sessionStore.purgeExpired(System.currentTimeMillis());
+    }
 
-        // Add dummy sessions
-        for (int i = 0; i < count; i++) {
-            activeSessions.put("user" + i + "@example.com", System.currentTimeMillis());
+    private Role roleOf(ValidatedToken token) {
+        String role = token.getRole();
+        if (role == null) {
+            return null;
+        }
+        try {
+            return Role.valueOf(role);
+        } catch (IllegalArgumentException e) {
+            return null;
         }
     }
-}
\ No newline at end of file
+}
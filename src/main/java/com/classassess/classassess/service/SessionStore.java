@@ -0,0 +1,31 @@
+package com.classassess.classassess.service;
+
+import com.classassess.classassess.model.Role;
+
+import java.util.Map;
+
+/**
+ * Backing store for active-session tracking and revoked tokens.
+ * The in-memory store suits a single instance; the database store is shared by every instance.
+ * Selected with {@code app.session.store}.
+ */
+public interface SessionStore {
+
+    void recordActivity(String username, Role role, long nowMillis);
+
+    long getActiveCount(long nowMillis);
+
+    Map<String, Long> getActiveCountByRole(long nowMillis);
+
+    /**
+     * Deny the token with this id until it would have expired anyway
+     */
+    void revoke(String tokenId, long expiresAtMillis);
+
+    boolean isRevoked(String tokenId);
+
+    /**
+     * Drop inactive users and denylist entries for tokens that have expired
+     */
+    void purgeExpired(long nowMillis);
+}
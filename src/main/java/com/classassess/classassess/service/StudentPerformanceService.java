@@ -0,0 +1,162 @@
+package com.classassess.classassess.service;
+
+import com.classassess.classassess.model.StudentModulePerformance;
+import com.classassess.classassess.model.Submission;
+import com.classassess.classassess.model.Test;
+import com.classassess.classassess.repository.StudentModulePerformanceRepository;
+import com.classassess.classassess.repository.SubmissionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Maintains per-(student, module) running totals of graded submissions.
+ * First-time grading adds to the totals; regrades and appeals recompute the pair from source.
+ * The periodic reconcile compares every pair with the submissions table and recomputes only
+ * those that differ, each under its row lock, so it never overwrites a concurrent update.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StudentPerformanceService {
+    private static final String RECONCILE_LOCK = "student-performance-reconcile";
+
+    private final StudentModulePerformanceRepository performanceRepository;
+    private final SubmissionRepository submissionRepository;
+    private final ClusterLockService clusterLockService;
+    private final PlatformTransactionManager transactionManager;
+
+    /**
+     * Add a submission graded for the first time
+     */
+    @Transactional
+    public void recordGraded(Submission submission) {
+        Long moduleId = moduleIdOf(submission);
+        if (moduleId == null) {
+            return;
+        }
+        double score = submission.getTotalScore() != null ? submission.getTotalScore() : 0.0;
+        performanceRepository.addGraded(submission.getStudent().getId(), moduleId, score,
+                submission.getId(), submission.getSubmittedAt());
+    }
+
+    /**
+     * Recompute the totals a submission belongs to, after its score changed
+     */
+    @Transactional
+    public void refresh(Submission submission) {
+        Long moduleId = moduleIdOf(submission);
+        if (moduleId != null) {
+            refreshPair(submission.getStudent().getId(), moduleId);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        if (performanceRepository.count() == 0) {
+            reconcile();
+        }
+    }
+
+    /**
+     * Recompute every pair whose totals no longer match the submissions table. Runs on one instance at a time.
+     */
+    @Scheduled(fixedDelayString = "${app.analytics.rollup.reconcile-interval-ms:3600000}",
+            initialDelayString = "${app.analytics.rollup.reconcile-interval-ms:3600000}")
+    public void reconcile() {
+        clusterLockService.runExclusively(RECONCILE_LOCK, this::reconcileAll);
+    }
+
+    private void reconcileAll() {
+        long startedAt = System.currentTimeMillis();
+        Map<List<Long>, StudentModulePerformance> expected = new HashMap<>();
+
+        // Rows: submission, module, test, student, lecturer, submittedAt, score
+        for (Object[] row : submissionRepository.getGradedFacts()) {
+            if (row[1] == null) {
+                continue;
+            }
+            StudentModulePerformance performance = expected.computeIfAbsent(
+                    List.of((Long) row[3], (Long) row[1]), key -> new StudentModulePerformance());
+            performance.setGradedCount(performance.getGradedCount() + 1);
+            performance.setScoreSum(performance.getScoreSum() + (row[6] != null ? ((Number) row[6]).doubleValue() : 0.0));
+        }
+
+        Set<List<Long>> stale = new HashSet<>();
+        Set<List<Long>> stored = new HashSet<>();
+        for (StudentModulePerformance current : performanceRepository.findAll()) {
+            List<Long> key = List.of(current.getStudentId(), current.getModuleId());
+            stored.add(key);
+            StudentModulePerformance fresh = expected.get(key);
+            if (fresh == null ? current.getGradedCount() != 0 : !matches(current, fresh)) {
+                stale.add(key);
+            }
+        }
+        expected.keySet().stream().filter(key -> !stored.contains(key)).forEach(stale::add);
+
+        // The snapshot only picks candidates; each one is recomputed from source under its lock
+        int corrected = 0;
+        for (List<Long> key : stale) {
+            try {
+                inRefreshTransaction(() -> refreshPair(key.get(0), key.get(1)));
+                corrected++;
+            } catch (RuntimeException e) {
+                log.warn("Failed to reconcile performance of student {} in module {}: {}",
+                        key.get(0), key.get(1), e.getMessage());
+            }
+        }
+        log.info("Reconciled student module performance: corrected {} of {} pairs in {} ms",
+                corrected, expected.size(), System.currentTimeMillis() - startedAt);
+    }
+
+    /**
+     * Lock the pair's row, then recompute it from the submissions table, so an increment
+     * committed meanwhile is either included or applied on top afterwards
+     */
+    private void refreshPair(Long studentId, Long moduleId) {
+        performanceRepository.lockPair(studentId, moduleId);
+
+        // Newest first, so the first row is the last submission
+        List<Object[]> results = submissionRepository.getGradedResults(studentId, moduleId);
+        double scoreSum = 0;
+        for (Object[] row : results) {
+            scoreSum += row[3] != null ? ((Number) row[3]).doubleValue() : 0.0;
+        }
+        Long lastSubmissionId = results.isEmpty() ? null : (Long) results.get(0)[0];
+        LocalDateTime lastSubmittedAt = results.isEmpty() ? null : (LocalDateTime) results.get(0)[4];
+
+        performanceRepository.replace(studentId, moduleId, results.size(), scoreSum, lastSubmissionId, lastSubmittedAt);
+    }
+
+    private boolean matches(StudentModulePerformance current, StudentModulePerformance fresh) {
+        return current.getGradedCount() == fresh.getGradedCount()
+                && Math.abs(current.getScoreSum() - fresh.getScoreSum()) < 1e-6;
+    }
+
+    // Read committed, so the source rows read after taking the lock include everything committed before it
+    private void inRefreshTransaction(Runnable refresh) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        template.setIsolationLevel(TransactionDefinition.ISOLATION_READ_COMMITTED);
+        template.executeWithoutResult(status -> refresh.run());
+    }
+
+    private Long moduleIdOf(Submission submission) {
+        Test test = submission.getTest();
+        return test != null && test.getModule() != null ? test.getModule().getId() : null;
+    }
+}
@@ -0,0 +1,367 @@
+package com.classassess.classassess.service;
+
+import com.classassess.classassess.model.Submission;
+import com.classassess.classassess.model.SubmissionStatus;
+import com.classassess.classassess.model.Test;
+import com.classassess.classassess.repository.SubmissionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory columnar copy of graded submissions for ad-hoc analytics slicing.
+ * Each fact is a row across parallel primitive columns; queries build a selection
+ * vector with one pass per filter and aggregate it in a single group-by pass.
+ * Loaded at startup, updated as submissions are graded or regraded, and rebuilt
+ * periodically to pick up anything changed outside those paths.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SubmissionFactStore {
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    public enum Dimension { MODULE, TEST, STUDENT, LECTURER, MONTH }
+
+    /**
+     * Optional predicates; null fields match everything. Months use the rollup bucket encoding, see {@link #toMonth}.
+     */
+    public record Filter(Long moduleId, Long testId, Long studentId, Long lecturerId,
+                         Integer fromMonth, Integer toMonth) {
+    }
+
+    /**
+     * Aggregates per group, in parallel arrays ordered by key
+     */
+    public record GroupResult(long[] keys, long[] counts, long[] passed, double[] scoreSums) {
+        public int size() {
+            return keys.length;
+        }
+    }
+
+    private final SubmissionRepository submissionRepository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // One reload at a time; a lock rather than synchronized since it blocks on the facts query
+    private final ReentrantLock reloadLock = new ReentrantLock();
+
+    private Columns columns = new Columns(INITIAL_CAPACITY);
+    // Facts recorded while a reload is running, replayed onto the fresh columns before the swap
+    private List<Fact> pendingDuringReload;
+
+    private record Fact(long submissionId, long moduleId, long testId, long studentId,
+                        long lecturerId, int month, double score) {
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        reload();
+    }
+
+    /**
+     * Rebuild every column from the submissions table
+     */
+    @Scheduled(fixedDelayString = "${app.analytics.facts.reload-interval-ms:3600000}",
+            initialDelayString = "${app.analytics.facts.reload-interval-ms:3600000}")
+    public void reload() {
+        reloadLock.lock();
+        try {
+            reloadNow();
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    private void reloadNow() {
+        long start = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            pendingDuringReload = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        List<Object[]> rows = submissionRepository.getGradedFacts();
+
+        Columns fresh = new Columns(Math.max(INITIAL_CAPACITY, rows.size()));
+        for (Object[] row : rows) {
+            fresh.upsert(
+                    ((Number) row[0]).longValue(),
+                    toLong(row[1]),
+                    toLong(row[2]),
+                    toLong(row[3]),
+                    toLong(row[4]),
+                    toMonth((LocalDateTime) row[5]),
+                    row[6] != null ? ((Number) row[6]).doubleValue() : 0.0);
+        }
+
+        lock.writeLock().lock();
+        try {
+            // The snapshot may predate these, so apply them on top; upserts make replays harmless
+            for (Fact fact : pendingDuringReload) {
+                fresh.upsert(fact.submissionId(), fact.moduleId(), fact.testId(), fact.studentId(),
+                        fact.lecturerId(), fact.month(), fact.score());
+            }
+            pendingDuringReload = null;
+            columns = fresh;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Loaded {} graded submission facts in {} ms", fresh.size, System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Add or update the fact for a submission after it is graded or its score changes.
+     * Inside a transaction the fact is only applied once it commits, so a rollback leaves no trace.
+     */
+    public void record(Submission submission) {
+        if (submission.getId() == null || submission.getStatus() != SubmissionStatus.GRADED) {
+            return;
+        }
+        Test test = submission.getTest();
+        long moduleId = test.getModule() != null ? test.getModule().getId() : 0;
+        long lecturerId = test.getLecturer() != null ? test.getLecturer().getId() : 0;
+        double score = submission.getTotalScore() != null ? submission.getTotalScore() : 0.0;
+
+        Fact fact = new Fact(submission.getId(), moduleId, test.getId(), submission.getStudent().getId(),
+                lecturerId, toMonth(submission.getSubmittedAt()), score);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(fact);
+                }
+            });
+        } else {
+            apply(fact);
+        }
+    }
+
+    private void apply(Fact fact) {
+        lock.writeLock().lock();
+        try {
+            columns.upsert(fact.submissionId(), fact.moduleId(), fact.testId(), fact.studentId(),
+                    fact.lecturerId(), fact.month(), fact.score());
+            if (pendingDuringReload != null) {
+                pendingDuringReload.add(fact);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return columns.size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Filter the facts and aggregate count, passes and score sum per value of the given dimension
+     */
+    public GroupResult groupBy(Dimension dimension, Filter filter) {
+        lock.readLock().lock();
+        try {
+            Columns c = columns;
+            int[] selection = c.selectAll();
+            int selected = c.size;
+
+            if (filter.moduleId() != null) {
+                selected = selectEquals(c.moduleIds, filter.moduleId(), selection, selected);
+            }
+            if (filter.testId() != null) {
+                selected = selectEquals(c.testIds, filter.testId(), selection, selected);
+            }
+            if (filter.studentId() != null) {
+                selected = selectEquals(c.studentIds, filter.studentId(), selection, selected);
+            }
+            if (filter.lecturerId() != null) {
+                selected = selectEquals(c.lecturerIds, filter.lecturerId(), selection, selected);
+            }
+            if (filter.fromMonth() != null || filter.toMonth() != null) {
+                int from = filter.fromMonth() != null ? filter.fromMonth() : Integer.MIN_VALUE;
+                int to = filter.toMonth() != null ? filter.toMonth() : Integer.MAX_VALUE;
+                selected = selectBetween(c.months, from, to, selection, selected);
+            }
+
+            return aggregate(c, keyColumn(c, dimension), selection, selected);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static long[] keyColumn(Columns c, Dimension dimension) {
+        switch (dimension) {
+            case MODULE:
+                return c.moduleIds;
+            case TEST:
+                return c.testIds;
+            case STUDENT:
+                return c.studentIds;
+            case LECTURER:
+                return c.lecturerIds;
+            default:
+                // Months are ints; widen them once so the aggregation loop stays the same
+                long[] months = new long[c.size];
+                for (int i = 0; i < c.size; i++) {
+                    months[i] = c.months[i];
+                }
+                return months;
+        }
+    }
+
+    /**
+     * Keep the selected rows whose value equals the target, compacting the selection in place
+     */
+    private static int selectEquals(long[] column, long target, int[] selection, int selected) {
+        int kept = 0;
+        for (int i = 0; i < selected; i++) {
+            int row = selection[i];
+            if (column[row] == target) {
+                selection[kept++] = row;
+            }
+        }
+        return kept;
+    }
+
+    private static int selectBetween(int[] column, int from, int to, int[] selection, int selected) {
+        int kept = 0;
+        for (int i = 0; i < selected; i++) {
+            int row = selection[i];
+            int value = column[row];
+            if (value >= from && value <= to) {
+                selection[kept++] = row;
+            }
+        }
+        return kept;
+    }
+
+    /**
+     * Sort the selected keys once, then sum runs of equal keys
+     */
+    private static GroupResult aggregate(Columns c, long[] keyColumn, int[] selection, int selected) {
+        long[] packed = new long[selected];
+        for (int i = 0; i < selected; i++) {
+            packed[i] = keyColumn[selection[i]];
+        }
+        Arrays.sort(packed);
+        int distinct = 0;
+        for (int i = 0; i < selected; i++) {
+            if (i == 0 || packed[i] != packed[i - 1]) {
+                packed[distinct++] = packed[i];
+            }
+        }
+        long[] keys = Arrays.copyOf(packed, distinct);
+
+        long[] counts = new long[keys.length];
+        long[] passed = new long[keys.length];
+        double[] scoreSums = new double[keys.length];
+        for (int i = 0; i < selected; i++) {
+            int row = selection[i];
+            int group = Arrays.binarySearch(keys, keyColumn[row]);
+            double score = c.scores[row];
+            counts[group]++;
+            scoreSums[group] += score;
+            if (score >= 60) {
+                passed[group]++;
+            }
+        }
+        return new GroupResult(keys, counts, passed, scoreSums);
+    }
+
+    /**
+     * Same bucket as the monthly rollups ({@link AnalyticsRollupService#toBucket}), or 0 when the submission time is unknown
+     */
+    public static int toMonth(LocalDateTime time) {
+        return time != null ? AnalyticsRollupService.toBucket(YearMonth.from(time)) : 0;
+    }
+
+    private static long toLong(Object value) {
+        return value != null ? ((Number) value).longValue() : 0;
+    }
+
+    private static class Columns {
+        private long[] submissionIds;
+        private long[] moduleIds;
+        private long[] testIds;
+        private long[] studentIds;
+        private long[] lecturerIds;
+        private int[] months;
+        private double[] scores;
+        private int size;
+
+        // Row of each submission so regrades overwrite in place
+        private final Map<Long, Integer> rowBySubmission = new HashMap<>();
+
+        Columns(int capacity) {
+            submissionIds = new long[capacity];
+            moduleIds = new long[capacity];
+            testIds = new long[capacity];
+            studentIds = new long[capacity];
+            lecturerIds = new long[capacity];
+            months = new int[capacity];
+            scores = new double[capacity];
+        }
+
+        void upsert(long submissionId, long moduleId, long testId, long studentId,
+                    long lecturerId, int month, double score) {
+            Integer existing = rowBySubmission.get(submissionId);
+            int row;
+            if (existing != null) {
+                row = existing;
+            } else {
+                if (size == submissionIds.length) {
+                    grow();
+                }
+                row = size++;
+                rowBySubmission.put(submissionId, row);
+            }
+            submissionIds[row] = submissionId;
+            moduleIds[row] = moduleId;
+            testIds[row] = testId;
+            studentIds[row] = studentId;
+            lecturerIds[row] = lecturerId;
+            months[row] = month;
+            scores[row] = score;
+        }
+
+        int[] selectAll() {
+            int[] selection = new int[size];
+            for (int i = 0; i < size; i++) {
+                selection[i] = i;
+            }
+            return selection;
+        }
+
+        private void grow() {
+            int capacity = submissionIds.length * 2;
+            submissionIds = Arrays.copyOf(submissionIds, capacity);
+            moduleIds = Arrays.copyOf(moduleIds, capacity);
+            testIds = Arrays.copyOf(testIds, capacity);
+            studentIds = Arrays.copyOf(studentIds, capacity);
+            lecturerIds = Arrays.copyOf(lecturerIds, capacity);
+            months = Arrays.copyOf(months, capacity);
+            scores = Arrays.copyOf(scores, capacity);
+        }
+    }
+}
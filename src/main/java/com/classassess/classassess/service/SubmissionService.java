@@ -5,12 +5,13 @@ import com.classassess.classassess.exception.ResourceNotFoundException;
 import com.classassess.classassess.model.*;
 import com.classassess.classassess.repository.AnswerRepository;
 import com.classassess.classassess.repository.AppealRepository;
+import com.classassess.classassess.repository.StudentModulePerformanceRepository;
 import com.classassess.classassess.repository.SubmissionRepository;
 import com.classassess.classassess.repository.TestRepository;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
-import com.classassess.classassess.model.Module;
 
 import java.sql.SQLOutput;
 import java.util.*;
@@ -18,12 +19,14 @@ import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
+@Slf4j
 public class SubmissionService {
     private final SubmissionRepository submissionRepository;
     private final AnswerRepository answerRepository;
     private final TestRepository testRepository;
     private final UserService userService;
     private final AppealRepository appealRepository;
+    private final StudentModulePerformanceRepository performanceRepository;
 
     /**
      * Get all completed submissions for the current user
@@ -51,7 +54,7 @@ public class SubmissionService {
 
             Optional<Submission> submissionOpt = submissionRepository.findById(submissionId);
             submissionOpt.ifPresent(submission -> {
-                System.out.println(submission.getTest().getId());
+                log.debug("Submission belongs to test {}", submission.getTest().getId());
                 });
 
             if (submissionOpt.isEmpty()) {
@@ -155,8 +158,7 @@ public class SubmissionService {
             return results;
         } catch (Exception e) {
             // Log the error
-            System.err.println("Error getting detailed test results: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error getting detailed test results", e);
 
             // Return an error response
             Map<String, Object> errorResponse = new HashMap<>();
@@ -190,18 +192,14 @@ public class SubmissionService {
      */
     public double getOverallAverageScore() {
         User currentUser = userService.getCurrentUser();
-        List<Submission> submissions = submissionRepository.findByStudentAndStatus(
-                currentUser, SubmissionStatus.GRADED);
+        Object[] totals = performanceRepository.getTotalsByStudentId(currentUser.getId()).get(0);
 
-        if (submissions.isEmpty()) {
+        long gradedCount = ((Number) totals[0]).longValue();
+        if (gradedCount == 0) {
             return 0.0;
         }
 
-        double totalScore = submissions.stream()
-                .mapToDouble(Submission::getTotalScore)
-                .sum();
-
-        return totalScore / submissions.size();
+        return ((Number) totals[1]).doubleValue() / gradedCount;
     }
 
     private SubmissionDTO convertToDTO(Submission submission) {
@@ -222,111 +220,63 @@ public class SubmissionService {
     }
 
     /**
-     * Get performance summary for all modules the student is enrolled in
+     * Get performance summary for all modules the student is enrolled in.
+     * Served from the per-module running totals; test results are loaded per module on demand.
      */
     public Map<String, Object> getModulesPerformanceSummary() {
         User currentUser = userService.getCurrentUser();
 
-        // Get all submissions by the current user
-        List<Submission> allSubmissions = submissionRepository.findByStudentOrderBySubmittedAtDesc(currentUser);
-
-        // Filter to only include graded submissions
-        List<Submission> gradedSubmissions = allSubmissions.stream()
-                .filter(submission -> submission.getStatus() == SubmissionStatus.GRADED)
-                .collect(Collectors.toList());
-
-        // Group submissions by module
-        Map<Long, List<Submission>> submissionsByModule = new HashMap<>();
-
-        for (Submission submission : gradedSubmissions) {
-            // Get module ID from the test
-            Test test = submission.getTest();
-            if (test != null && test.getModule() != null) {
-                Long moduleId = test.getModule().getId();
-
-                if (!submissionsByModule.containsKey(moduleId)) {
-                    submissionsByModule.put(moduleId, new ArrayList<>());
-                }
-
-                submissionsByModule.get(moduleId).add(submission);
-            }
-        }
-
-        // Calculate module averages and prepare response
         List<Map<String, Object>> moduleData = new ArrayList<>();
         double totalModulesScore = 0;
-        int modulesWithScores = 0;
 
-        for (Map.Entry<Long, List<Submission>> entry : submissionsByModule.entrySet()) {
-            Long moduleId = entry.getKey();
-            List<Submission> moduleSubmissions = entry.getValue();
-
-            // Get the module information
-            if (moduleSubmissions.isEmpty()) {
-                continue;
-            }
-
-            Test firstTest = moduleSubmissions.get(0).getTest();
-            Module module = firstTest.getModule();
-
-            // Calculate average score for this module
-            double moduleAverage = calculateModuleAverage(moduleSubmissions);
-
-            // Add to overall average calculation
+        // Rows: moduleId, code, title, gradedCount, scoreSum, lastSubmittedAt
+        for (Object[] row : performanceRepository.getSummaryByStudentId(currentUser.getId())) {
+            long testsCount = ((Number) row[3]).longValue();
+            double moduleAverage = ((Number) row[4]).doubleValue() / testsCount;
             totalModulesScore += moduleAverage;
-            modulesWithScores++;
-
-            // Prepare test details
-            List<Map<String, Object>> testDetails = moduleSubmissions.stream()
-                    .map(submission -> {
-                        Map<String, Object> testMap = new HashMap<>();
-                        testMap.put("id", submission.getId());
-                        testMap.put("testId", submission.getTest().getId());
-                        testMap.put("title", submission.getTest().getTitle());
-                        testMap.put("score", submission.getTotalScore());
-                        testMap.put("submittedAt", submission.getSubmittedAt());
-                        return testMap;
-                    })
-                    .collect(Collectors.toList());
-
-            // Create module data object
+
             Map<String, Object> moduleInfo = new HashMap<>();
-            moduleInfo.put("id", moduleId);
-            moduleInfo.put("code", module.getCode());
-            moduleInfo.put("title", module.getTitle());
+            moduleInfo.put("id", row[0]);
+            moduleInfo.put("code", row[1]);
+            moduleInfo.put("title", row[2]);
             moduleInfo.put("averageScore", moduleAverage);
-            moduleInfo.put("testsCount", moduleSubmissions.size());
-            moduleInfo.put("tests", testDetails);
+            moduleInfo.put("testsCount", testsCount);
+            moduleInfo.put("lastSubmittedAt", row[5]);
 
             moduleData.add(moduleInfo);
         }
 
         // Calculate overall average
-        double overallAverage = modulesWithScores > 0 ? totalModulesScore / modulesWithScores : 0.0;
+        double overallAverage = !moduleData.isEmpty() ? totalModulesScore / moduleData.size() : 0.0;
 
         // Create final response
         Map<String, Object> result = new HashMap<>();
         result.put("overallAverage", overallAverage);
-        result.put("completedModulesCount", modulesWithScores);
-        result.put("totalModulesCount", submissionsByModule.size());
+        result.put("completedModulesCount", moduleData.size());
+        result.put("totalModulesCount", moduleData.size());
         result.put("modules", moduleData);
 
         return result;
     }
 
     /**
-     * Calculate average score for a set of submissions
+     * Graded test results of the current student in one module, newest first
      */
-    private double calculateModuleAverage(List<Submission> submissions) {
-        if (submissions.isEmpty()) {
-            return 0.0;
-        }
-
-        double totalScore = submissions.stream()
-                .mapToDouble(submission -> submission.getTotalScore() != null ? submission.getTotalScore() : 0.0)
-                .sum();
+    public List<Map<String, Object>> getModuleResults(Long moduleId) {
+        User currentUser = userService.getCurrentUser();
 
-        return totalScore / submissions.size();
+        // Rows: id, testId, title, score, submittedAt
+        return submissionRepository.getGradedResults(currentUser.getId(), moduleId).stream()
+                .map(row -> {
+                    Map<String, Object> testMap = new HashMap<>();
+                    testMap.put("id", row[0]);
+                    testMap.put("testId", row[1]);
+                    testMap.put("title", row[2]);
+                    testMap.put("score", row[3]);
+                    testMap.put("submittedAt", row[4]);
+                    return testMap;
+                })
+                .collect(Collectors.toList());
     }
 
     /**
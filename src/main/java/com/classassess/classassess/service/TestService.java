@@ -4,18 +4,23 @@ import com.classassess.classassess.dto.*;
 import com.classassess.classassess.exception.ResourceNotFoundException;
 import com.classassess.classassess.model.*;
 import com.classassess.classassess.repository.*;
+import com.classassess.classassess.security.ModuleAccessResolver;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
+@Slf4j
 public class TestService {
     private final TestRepository testRepository;
     private final SubmissionRepository submissionRepository;
@@ -27,6 +32,17 @@ public class TestService {
     private final AnswerRepository answerRepository;
     private final MCQOptionRepository mcqOptionRepository;
     private final NotificationService notificationService;
+    private final DashboardUpdateService dashboardUpdateService;
+    private final ExamPresenceService examPresenceService;
+    private final AnalyticsRollupService analyticsRollupService;
+    private final AnalyticsCacheService analyticsCacheService;
+    private final SubmissionFactStore submissionFactStore;
+    private final ScoreDistributionService scoreDistributionService;
+    private final StudentPerformanceService studentPerformanceService;
+    private final ItemAnalysisService itemAnalysisService;
+    private final LecturerStatsService lecturerStatsService;
+    private final ModuleAccessResolver moduleAccessResolver;
+    private final ApplicationEventPublisher eventPublisher;
 
     public List<TestDTO> getStudentTests() {
         User currentUser = userService.getCurrentUser();
@@ -55,11 +71,12 @@ public class TestService {
                 : userService.getUserById(studentId);
 
         // Get the modules this student is enrolled in
-        List<Long> enrolledModuleIds = moduleRepository.findModuleIdsByStudentId(currentUser.getId());
+        long[] enrolledModuleIds = moduleAccessResolver.getEnrolledModuleIds(currentUser.getId());
 
         // Filter tests by enrolled modules
         return testRepository.findActiveTests().stream()
-                .filter(test -> test.getModule() != null && enrolledModuleIds.contains(test.getModule().getId()))
+                .filter(test -> test.getModule() != null
+                        && Arrays.binarySearch(enrolledModuleIds, test.getModule().getId()) >= 0)
                 .map(test -> {
                     TestDTO dto = convertToDTO(test);
                     submissionRepository.findByTestAndStudent(test, currentUser)
@@ -81,6 +98,7 @@ public class TestService {
         // Check if a submission already exists
         Submission submission = submissionRepository.findByTestAndStudent(test, student)
                 .orElse(new Submission());
+        boolean previouslyGraded = submission.getStatus() == SubmissionStatus.GRADED;
 
         submission.setTest(test);
         submission.setStudent(student);
@@ -150,6 +168,21 @@ public class TestService {
         savedSubmission.setTotalScore(finalScore);
         savedSubmission.setStatus(SubmissionStatus.GRADED);
         submissionRepository.save(savedSubmission);
+        submissionFactStore.record(savedSubmission);
+
+        if (previouslyGraded) {
+            // A regrade replaces earlier scores, so recompute this test's rollup instead of adding to it
+            analyticsRollupService.refreshTest(test.getId());
+            studentPerformanceService.refresh(savedSubmission);
+        } else {
+            analyticsRollupService.recordSubmissionGraded(test);
+            studentPerformanceService.recordGraded(savedSubmission);
+        }
+
+        if (!previouslyGraded && test.getLecturer() != null) {
+            dashboardUpdateService.recordSubmissionGraded(test.getLecturer().getId());
+        }
+        examPresenceService.recordLeft(test.getId(), student.getId());
     }
 
     /*private double calculateAnswerScore(Question question, String answerText) {
@@ -217,6 +250,7 @@ public class TestService {
         submission.setTest(test);
         submission.setStudent(student);
         submission.setStatus(SubmissionStatus.IN_PROGRESS);
+        examPresenceService.recordAutosave(test, student);
 
         // Save the submission first to get an ID
         Submission savedSubmission = submissionRepository.save(submission);
@@ -353,6 +387,7 @@ public class TestService {
         // Save the test to get an ID
         Test savedTest = testRepository.save(test);
         notificationService.handleTestCreationNotification(savedTest, module);
+        analyticsRollupService.recordTestCreated(savedTest);
 
         // Process questions if any
         if (testDTO.getQuestions() != null && !testDTO.getQuestions().isEmpty()) {
@@ -440,7 +475,7 @@ public class TestService {
             if (question.getQuestionType() == QuestionType.MCQ) {
                 // Directly query for options
                 List<MCQOption> options = mcqOptionRepository.findByQuestionId(question.getId());
-                System.out.println("Found " + options.size() + " options for question ID " + question.getId());
+                log.debug("Found {} options for question ID {}", options.size(), question.getId());
 
                 List<MCQOptionDTO> optionDTOs = new ArrayList<>();
                 for (MCQOption option : options) {
@@ -572,33 +607,33 @@ public class TestService {
 
     @Transactional
     private void generateAIQuestions(Test test, Integer questionCount) {
-        System.out.println("Generating " + questionCount + " AI questions for test ID: " + test.getId());
+        log.debug("Generating {} AI questions for test ID: {}", questionCount, test.getId());
 
         List<Question> aiQuestions = aiService.generateQuestions(test.getTitle(), test.getDescription(), questionCount);
-        System.out.println("AI Service returned " + aiQuestions.size() + " questions");
+        log.debug("AI Service returned {} questions", aiQuestions.size());
 
         for (int i = 0; i < aiQuestions.size(); i++) {
             Question question = aiQuestions.get(i);
-            System.out.println("Processing question " + (i+1) + ": " + question.getQuestionText());
-            System.out.println("Question type: " + question.getQuestionType());
+            log.debug("Processing question {}: {}", i + 1, question.getQuestionText());
+            log.debug("Question type: {}", question.getQuestionType());
 
             // Set the test for this question
             question.setTest(test);
 
             // Save the question first to get an ID
             Question savedQuestion = questionRepository.save(question);
-            System.out.println("Saved question with ID: " + savedQuestion.getId());
+            log.debug("Saved question with ID: {}", savedQuestion.getId());
 
             // Get the options from the question
             List<MCQOption> options = question.getOptions();
-            System.out.println("Question has " + (options != null ? options.size() : 0) + " options");
+            log.debug("Question has {} options", options != null ? options.size() : 0);
 
             // Save each option
             if (options != null) {
                 for (MCQOption option : options) {
                     option.setQuestion(savedQuestion); // Link to the saved question
                     MCQOption savedOption = mcqOptionRepository.save(option);
-                    System.out.println("Saved option: " + savedOption.getId() + " - " + savedOption.getOptionText() + ", isCorrect: " + savedOption.getIsCorrect());
+                    log.debug("Saved option: {} - {}, isCorrect: {}", savedOption.getId(), savedOption.getOptionText(), savedOption.getIsCorrect());
                 }
             }
         }
@@ -608,7 +643,7 @@ public class TestService {
 
         // Save the test again to update its questions
         testRepository.save(test);
-        System.out.println("Completed generating AI questions for test ID: " + test.getId());
+        log.debug("Completed generating AI questions for test ID: {}", test.getId());
     }
 
     private Test convertToEntity(TestDTO dto) {
@@ -690,36 +725,7 @@ public class TestService {
 
     public Map<String, Object> getLecturerDashboardStats() {
         User currentUser = userService.getCurrentUser();
-        Map<String, Object> stats = new HashMap<>();
-
-        // Get total students from module_students table
-        Long totalStudents = moduleRepository.countDistinctStudentsByLecturerId(currentUser.getId());
-
-        // Get test counts
-        List<Test> lecturerTests = testRepository.findByLecturerId(currentUser.getId());
-        List<Submission> submissions = submissionRepository.findByTestIn(lecturerTests);
-
-        // Count active tests (not ended)
-        long activeTests = lecturerTests.stream()
-                .filter(test -> test.getEndTime() != null &&
-                        test.getEndTime().isAfter(java.time.LocalDateTime.now()))
-                .count();
-
-        // Count submissions by status
-        long pendingGrading = submissions.stream()
-                .filter(sub -> sub.getStatus() == SubmissionStatus.SUBMITTED)
-                .count();
-
-        long completedTests = submissions.stream()
-                .filter(sub -> sub.getStatus() == SubmissionStatus.GRADED)
-                .count();
-
-        stats.put("totalStudents", totalStudents);
-        stats.put("activeTests", activeTests);
-        stats.put("pendingGrading", pendingGrading);
-        stats.put("completedTests", completedTests);
-
-        return stats;
+        return lecturerStatsService.getStats(currentUser.getId()).toMap();
     }
 
     public List<AppealDTO> getAppealsByLecturer() {
@@ -746,6 +752,8 @@ public class TestService {
             throw new AccessDeniedException("You don't have permission to manage this appeal");
         }
 
+        boolean wasPending = appeal.getStatus() == AppealStatus.PENDING;
+
         // Update appeal status
         appeal.setStatus(AppealStatus.valueOf(resolutionDTO.getStatus()));
         appeal.setFeedback(resolutionDTO.getFeedback());
@@ -757,9 +765,16 @@ public class TestService {
             Submission submission = appeal.getSubmission();
             submission.setTotalScore(resolutionDTO.getNewScore());
             submissionRepository.save(submission);
+            submissionFactStore.record(submission);
+            studentPerformanceService.refresh(submission);
+        }
+
+        if (wasPending && appeal.getStatus() != AppealStatus.PENDING) {
+            dashboardUpdateService.recordAppealResolved(currentUser.getId());
         }
 
         Appeal savedAppeal = appealRepository.save(appeal);
+        analyticsRollupService.refreshTest(savedAppeal.getTest().getId());
         return convertToAppealDTO(savedAppeal);
     }
 
@@ -783,33 +798,7 @@ public class TestService {
      */
     public List<ModulePerformanceDTO> getModulePerformance() {
         User currentUser = userService.getCurrentUser();
-        List<Object[]> rawData = testRepository.getModulePerformanceByLecturerId(currentUser.getId());
-
-        List<ModulePerformanceDTO> result = new ArrayList<>();
-        for (Object[] row : rawData) {
-            String moduleCode = (String) row[1];
-            String moduleTitle = (String) row[2];
-            long testCount = (long) row[3];
-            Double avgScore = row[4] != null ? (Double) row[4] : 0.0;
-
-            // Calculate passing rate (students with score >= 60%)
-            Long moduleId = (Long) row[0];
-            Double passingRate = calculateModulePassingRate(moduleId);
-
-            // Get student count
-            Integer studentCount = getModuleStudentCount(moduleId);
-
-            result.add(ModulePerformanceDTO.builder()
-                    .moduleCode(moduleCode)
-                    .moduleTitle(moduleTitle)
-                    .avgScore(avgScore)
-                    .passingRate(passingRate)
-                    .totalStudents(studentCount)
-                    .totalSubmissions((int) testCount)
-                    .build());
-        }
-
-        return result;
+        return analyticsCacheService.getDashboard(currentUser.getId()).getModulePerformance();
     }
 
     /**
@@ -817,55 +806,20 @@ public class TestService {
      */
     public List<TestActivityDTO> getTestActivity() {
         User currentUser = userService.getCurrentUser();
-        List<Object[]> rawData = testRepository.getTestActivityRawData(currentUser.getId());
-
-        // Group by year-month
-        Map<String, TestActivityDTO> activityMap = new HashMap<>();
-
-        for (Object[] row : rawData) {
-            if (row[0] == null || row[1] == null) continue;
-
-            int year = ((Number) row[0]).intValue();
-            int month = ((Number) row[1]).intValue();
-            String status = (String) row[2];
-            Long count = (Long) row[3];
-
-            String period = String.format("%d-%02d", year, month);
-
-            TestActivityDTO dto = activityMap.computeIfAbsent(period,
-                    k -> TestActivityDTO.builder()
-                            .period(period)
-                            .completedTests(0)
-                            .upcomingTests(0)
-                            .build());
-
-            if ("GRADED".equals(status)) {
-                dto.setCompletedTests(count.intValue());
-            }
-        }
-
-        // Get upcoming tests data
-        List<Object[]> upcomingData = testRepository.getUpcomingTestsByMonth(currentUser.getId());
-        for (Object[] row : upcomingData) {
-            if (row[0] == null || row[1] == null) continue;
-
-            int year = ((Number) row[0]).intValue();
-            int month = ((Number) row[1]).intValue();
-            Long count = (Long) row[2];
-
-            String period = String.format("%d-%02d", year, month);
-
-            TestActivityDTO dto = activityMap.computeIfAbsent(period,
-                    k -> TestActivityDTO.builder()
-                            .period(period)
-                            .completedTests(0)
-                            .upcomingTests(0)
-                            .build());
+        return analyticsCacheService.getDashboard(currentUser.getId()).getTestActivity();
+    }
 
-            dto.setUpcomingTests(count.intValue());
+    /**
+     * Get test activity for a range of months (yyyy-MM, inclusive); the dashboard cache only holds the full timeline
+     */
+    public List<TestActivityDTO> getTestActivity(String from, String to) {
+        if (from == null && to == null) {
+            return getTestActivity();
         }
-
-        return new ArrayList<>(activityMap.values());
+        User currentUser = userService.getCurrentUser();
+        return analyticsRollupService.getTestActivity(currentUser.getId(),
+                from != null ? YearMonth.parse(from) : null,
+                to != null ? YearMonth.parse(to) : null);
     }
 
     /**
@@ -873,49 +827,7 @@ public class TestService {
      */
     public List<AIConfidenceDTO> getAIConfidence() {
         User currentUser = userService.getCurrentUser();
-
-        // Get appeal metrics by module
-        List<Object[]> appealData = appealRepository.getAppealMetricsByModule(currentUser.getId());
-        Map<Long, Integer> appealsByModule = new HashMap<>();
-        Map<Long, Integer> approvedAppealsByModule = new HashMap<>();
-
-        for (Object[] row : appealData) {
-            Long moduleId = (Long) row[0];
-            Long appealCount = (Long) row[3];
-            Long approvedCount = (Long) row[4];
-
-            appealsByModule.put(moduleId, appealCount.intValue());
-            approvedAppealsByModule.put(moduleId, approvedCount.intValue());
-        }
-
-        // Get answer metrics by module
-        List<Object[]> answerData = appealRepository.getAnswerMetricsByModule(currentUser.getId());
-        List<AIConfidenceDTO> result = new ArrayList<>();
-
-        for (Object[] row : answerData) {
-            Long moduleId = (Long) row[0];
-            String moduleCode = (String) row[1];
-            String moduleTitle = (String) row[2];
-            Long answerCount = (Long) row[3];
-            Double passingRate = (Double) row[4];
-
-            int totalAppeals = appealsByModule.getOrDefault(moduleId, 0);
-            int approvedAppeals = approvedAppealsByModule.getOrDefault(moduleId, 0);
-
-            // Calculate confidence score based on pass rate and appeal success rate
-            double confidenceScore = calculateAIConfidence(passingRate, totalAppeals, approvedAppeals, answerCount);
-
-            result.add(AIConfidenceDTO.builder()
-                    .moduleCode(moduleCode)
-                    .moduleTitle(moduleTitle)
-                    .confidenceScore(confidenceScore)
-                    .totalGradedQuestions(answerCount.intValue())
-                    .totalAppeals(totalAppeals)
-                    .successfulAppeals(approvedAppeals)
-                    .build());
-        }
-
-        return result;
+        return analyticsCacheService.getDashboard(currentUser.getId()).getAiConfidence();
     }
 
     /**
@@ -924,216 +836,94 @@ public class TestService {
     public AnalyticsDashboardDTO getDashboardAnalytics() {
         User currentUser = userService.getCurrentUser();
 
-        // Check if the current user is an admin
-        boolean isAdmin = currentUser.getRole() == Role.ADMIN;
+        // Admins see every module; lecturers only their own tests
+        Long lecturerId = currentUser.getRole() == Role.ADMIN ? null : currentUser.getId();
 
-        if (isAdmin) {
-            return AnalyticsDashboardDTO.builder()
-                    .modulePerformance(getModulePerformanceForAdmin())
-                    .testActivity(getTestActivityForAdmin())
-                    .aiConfidence(getAIConfidenceForAdmin())
-                    .build();
-        } else {
-            return AnalyticsDashboardDTO.builder()
-                    .modulePerformance(getModulePerformance())
-                    .testActivity(getTestActivity())
-                    .aiConfidence(getAIConfidence())
-                    .build();
-        }
+        return analyticsCacheService.getDashboard(lecturerId);
     }
 
     /**
-     * Get performance metrics by module for admin (all modules)
+     * Score distribution for one of the current lecturer's tests
      */
-    private List<ModulePerformanceDTO> getModulePerformanceForAdmin() {
-        List<Object[]> rawData = testRepository.getModulePerformanceForAdmin();
-
-        List<ModulePerformanceDTO> result = new ArrayList<>();
-        for (Object[] row : rawData) {
-            String moduleCode = (String) row[1];
-            String moduleTitle = (String) row[2];
-            long testCount = (long) row[3];
-            Double avgScore = row[4] != null ? (Double) row[4] : 0.0;
-
-            // Calculate passing rate (students with score >= 60%)
-            Long moduleId = (Long) row[0];
-            Double passingRate = calculateModulePassingRate(moduleId);
-
-            // Get student count
-            Integer studentCount = getModuleStudentCount(moduleId);
-
-            result.add(ModulePerformanceDTO.builder()
-                    .moduleCode(moduleCode)
-                    .moduleTitle(moduleTitle)
-                    .avgScore(avgScore)
-                    .passingRate(passingRate)
-                    .totalStudents(studentCount)
-                    .totalSubmissions((int) testCount)
-                    .build());
-        }
-
-        return result;
+    public ScoreDistributionDTO getTestScoreDistribution(Long testId) {
+        checkCanViewTestAnalytics(getTestEntity(testId));
+        return scoreDistributionService.getTestDistribution(testId);
     }
 
     /**
-     * Get test activity data for admin (all tests)
+     * Per-question difficulty, discrimination and responses for one of the current lecturer's tests
      */
-    private List<TestActivityDTO> getTestActivityForAdmin() {
-        List<Object[]> rawData = testRepository.getTestActivityRawDataForAdmin();
-
-        // Group by year-month
-        Map<String, TestActivityDTO> activityMap = new HashMap<>();
-
-        for (Object[] row : rawData) {
-            if (row[0] == null || row[1] == null) continue;
-
-            int year = ((Number) row[0]).intValue();
-            int month = ((Number) row[1]).intValue();
-            String status = (String) row[2];
-            Long count = (Long) row[3];
-
-            String period = String.format("%d-%02d", year, month);
-
-            TestActivityDTO dto = activityMap.computeIfAbsent(period,
-                    k -> TestActivityDTO.builder()
-                            .period(period)
-                            .completedTests(0)
-                            .upcomingTests(0)
-                            .build());
-
-            if ("GRADED".equals(status)) {
-                dto.setCompletedTests(count.intValue());
-            }
-        }
-
-        // Get upcoming tests data
-        List<Object[]> upcomingData = testRepository.getUpcomingTestsByMonthForAdmin();
-        for (Object[] row : upcomingData) {
-            if (row[0] == null || row[1] == null) continue;
-
-            int year = ((Number) row[0]).intValue();
-            int month = ((Number) row[1]).intValue();
-            Long count = (Long) row[2];
-
-            String period = String.format("%d-%02d", year, month);
-
-            TestActivityDTO dto = activityMap.computeIfAbsent(period,
-                    k -> TestActivityDTO.builder()
-                            .period(period)
-                            .completedTests(0)
-                            .upcomingTests(0)
-                            .build());
+    public ItemAnalysisDTO getItemAnalysis(Long testId) {
+        checkCanViewTestAnalytics(getTestEntity(testId));
+        return itemAnalysisService.getAnalysis(testId);
+    }
 
-            dto.setUpcomingTests(count.intValue());
+    private void checkCanViewTestAnalytics(Test test) {
+        User currentUser = userService.getCurrentUser();
+        if (currentUser.getRole() != Role.ADMIN
+                && (test.getLecturer() == null || !test.getLecturer().getId().equals(currentUser.getId()))) {
+            throw new AccessDeniedException("You can only view analytics for your own tests");
         }
-
-        return new ArrayList<>(activityMap.values());
     }
 
     /**
-     * Get AI grading confidence metrics for admin (all modules)
+     * Score distribution across all tests in a module the current lecturer teaches
      */
-    private List<AIConfidenceDTO> getAIConfidenceForAdmin() {
-        // Get appeal metrics by module
-        List<Object[]> appealData = appealRepository.getAppealMetricsByModuleForAdmin();
-        Map<Long, Integer> appealsByModule = new HashMap<>();
-        Map<Long, Integer> approvedAppealsByModule = new HashMap<>();
-
-        for (Object[] row : appealData) {
-            Long moduleId = (Long) row[0];
-            Long appealCount = (Long) row[3];
-            Long approvedCount = (Long) row[4];
-
-            appealsByModule.put(moduleId, appealCount.intValue());
-            approvedAppealsByModule.put(moduleId, approvedCount.intValue());
+    public ScoreDistributionDTO getModuleScoreDistribution(Long moduleId) {
+        User currentUser = userService.getCurrentUser();
+        if (currentUser.getRole() != Role.ADMIN && !moduleAccessResolver.teaches(currentUser.getId(), moduleId)) {
+            throw new AccessDeniedException("You can only view distributions for your own modules");
         }
-
-        // Get answer metrics by module
-        List<Object[]> answerData = appealRepository.getAnswerMetricsByModuleForAdmin();
-        List<AIConfidenceDTO> result = new ArrayList<>();
-
-        for (Object[] row : answerData) {
-            Long moduleId = (Long) row[0];
-            String moduleCode = (String) row[1];
-            String moduleTitle = (String) row[2];
-            Long answerCount = (Long) row[3];
-            Double passingRate = (Double) row[4];
-
-            int totalAppeals = appealsByModule.getOrDefault(moduleId, 0);
-            int approvedAppeals = approvedAppealsByModule.getOrDefault(moduleId, 0);
-
-            // Calculate confidence score based on pass rate and appeal success rate
-            double confidenceScore = calculateAIConfidence(passingRate, totalAppeals, approvedAppeals, answerCount);
-
-            result.add(AIConfidenceDTO.builder()
-                    .moduleCode(moduleCode)
-                    .moduleTitle(moduleTitle)
-                    .confidenceScore(confidenceScore)
-                    .totalGradedQuestions(answerCount.intValue())
-                    .totalAppeals(totalAppeals)
-                    .successfulAppeals(approvedAppeals)
-                    .build());
+        if (!moduleRepository.existsById(moduleId)) {
+            throw new ResourceNotFoundException("Module not found with id: " + moduleId);
         }
-
-        return result;
+        return scoreDistributionService.getModuleDistribution(moduleId);
     }
 
     /**
-     * Helper method to calculate module passing rate
+     * Slice graded submissions by module, test, student, lecturer or month.
+     * Served from the in-memory fact store, so any combination of filters is cheap.
+     *
+     * @param from first month to include as yyyy-MM, or null
+     * @param to last month to include as yyyy-MM, or null
      */
-    private Double calculateModulePassingRate(Long moduleId) {
-        // Get all submissions for tests in this module
-        List<Object[]> results = submissionRepository.findModulePassingRate(moduleId);
-
-        if (results.isEmpty()) {
-            return 0.0;
+    public List<AnalyticsSliceDTO> getAnalyticsSlice(String groupBy, Long moduleId, String from, String to) {
+        User currentUser = userService.getCurrentUser();
+        Long lecturerId = currentUser.getRole() == Role.ADMIN ? null : currentUser.getId();
+
+        SubmissionFactStore.Dimension dimension = SubmissionFactStore.Dimension.valueOf(groupBy.toUpperCase());
+        SubmissionFactStore.Filter filter = new SubmissionFactStore.Filter(moduleId, null, null, lecturerId,
+                from != null ? AnalyticsRollupService.toBucket(YearMonth.parse(from)) : null,
+                to != null ? AnalyticsRollupService.toBucket(YearMonth.parse(to)) : null);
+        SubmissionFactStore.GroupResult result = submissionFactStore.groupBy(dimension, filter);
+
+        Map<Long, String> labels = new HashMap<>();
+        List<Long> ids = Arrays.stream(result.keys()).boxed().collect(Collectors.toList());
+        if (dimension == SubmissionFactStore.Dimension.MODULE) {
+            moduleRepository.findAllById(ids).forEach(module -> labels.put(module.getId(), module.getCode()));
+        } else if (dimension == SubmissionFactStore.Dimension.TEST) {
+            testRepository.findAllById(ids).forEach(test -> labels.put(test.getId(), test.getTitle()));
         }
 
-        // Extract values from the query result
-        Long passedCount = (Long) results.get(0)[0];
-        Long totalCount = (Long) results.get(0)[1];
-
-        // Calculate passing rate as percentage
-        return totalCount > 0 ? (passedCount * 100.0 / totalCount) : 0.0;
-    }
-
-    /**
-     * Helper method to get module student count
-     */
-    private Integer getModuleStudentCount(Long moduleId) {
-        return moduleRepository.countStudentsInModule(moduleId).intValue();
-    }
-
-    /**
-     * Calculate AI confidence score
-     * Formula: (passing rate * 0.6) + ((1 - approved appeals ratio) * 0.4) * 100
-     */
-    private double calculateAIConfidence(double passingRate, int totalAppeals, int approvedAppeals, long totalAnswers) {
-        System.out.println("Calculating confidence for module with:");
-        System.out.println("  - Passing rate: " + passingRate);
-        System.out.println("  - Total appeals: " + totalAppeals);
-        System.out.println("  - Approved appeals: " + approvedAppeals);
-        System.out.println("  - Total answers: " + totalAnswers);
-        // Calculate appeal factor (how often AI was correct when challenged)
-        double appealRatio = totalAppeals > 0 ? (double) approvedAppeals / totalAppeals : 0;
-        double appealFactor = totalAppeals > 0 ? (1 - appealRatio) : 1.0;
-
-        // Calculate base confidence
-        double confidenceScore = (passingRate * 0.5) + (appealFactor * 0.5);
-
-        // Add significant bonus for zero appeals when there's substantial data
-        if (totalAppeals == 0 && totalAnswers > 20) {
-            confidenceScore = Math.min(1.0, confidenceScore + 0.3); // 30% bonus, capped at 100%
+        List<AnalyticsSliceDTO> slices = new ArrayList<>(result.size());
+        for (int i = 0; i < result.size(); i++) {
+            long key = result.keys()[i];
+            long count = result.counts()[i];
+            String label = dimension == SubmissionFactStore.Dimension.MONTH
+                    ? String.format("%04d-%02d", key / 12, key % 12 + 1)
+                    : labels.get(key);
+            slices.add(AnalyticsSliceDTO.builder()
+                    .key(key)
+                    .label(label)
+                    .submissions(count)
+                    .avgScore(count > 0 ? result.scoreSums()[i] / count : 0.0)
+                    .passingRate(count > 0 ? result.passed()[i] * 100.0 / count : 0.0)
+                    .build());
         }
-
-        // Apply gradual scaling based on number of answers (more data = more confidence)
-        double dataConfidenceFactor = Math.min(1.0, totalAnswers / 100.0); // Reaches max at 100 answers
-        confidenceScore = confidenceScore * (0.7 + (0.3 * dataConfidenceFactor));
-
-        // Scale to 0-100 and round to 1 decimal place
-        return Math.round(confidenceScore * 1000) / 10.0;
+        return slices;
     }
 
+
     public Test getTestEntity(Long id) {
         return testRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Test not found with id: " + id));
@@ -1281,6 +1071,9 @@ public class TestService {
             mcqOptionRepository.deleteByQuestionId(question.getId());
             questionRepository.delete(question);
         }
+        itemAnalysisService.invalidate(test.getId());
+        // Touches the test's rollup row, which tells other instances to recompute their item analysis
+        analyticsRollupService.refreshTest(test.getId());
 
         // Return the updated test
         Test refreshedTest = testRepository.findById(test.getId()).get();
@@ -1365,35 +1158,39 @@ public class TestService {
     @Transactional
     public void cancelTest(Long testId) {
         try {
-            System.out.println("Service: Attempting to cancel test " + testId);
+            log.debug("Service: Attempting to cancel test {}", testId);
 
             Test test = testRepository.findById(testId)
                     .orElseThrow(() -> new ResourceNotFoundException("Test not found"));
 
-            System.out.println("Found test in service, current status: " + test.getStatus());
+            log.debug("Found test in service, current status: {}", test.getStatus());
 
             // Check if test has already started
             if (test.getStartTime() != null && test.getStartTime().isBefore(LocalDateTime.now())) {
-                System.out.println("Test has already started, cannot cancel");
+                log.warn("Test has already started, cannot cancel");
                 throw new IllegalStateException("Cannot cancel a test that has already started");
             }
 
             // Try setting the status with debug info
-            System.out.println("Current status type: " + test.getStatus().getClass().getName());
-            System.out.println("Setting status to CANCELLED");
+            log.debug("Current status type: {}", test.getStatus().getClass().getName());
+            log.debug("Setting status to CANCELLED");
 
             test.setStatus(Test.TestStatus.CANCELLED);
-            System.out.println("Status set to: " + test.getStatus());
+            log.debug("Status set to: {}", test.getStatus());
 
             // Save with debug info
-            System.out.println("Saving test with updated status");
+            log.debug("Saving test with updated status");
             Test savedTest = testRepository.save(test);
             notificationService.handleTestCancellationNotification(savedTest, savedTest.getModule());
-            System.out.println("Test saved. New status: " + savedTest.getStatus());
+            examPresenceService.closeTest(savedTest.getId());
+            // The lecturer's active test count changes
+            if (savedTest.getLecturer() != null) {
+                eventPublisher.publishEvent(new AnalyticsChangedEvent(savedTest.getLecturer().getId()));
+            }
+            log.debug("Test saved. New status: {}", savedTest.getStatus());
 
         } catch (Exception e) {
-            System.err.println("Exception in cancelTest service method: " + e.getClass().getName() + ": " + e.getMessage());
-            e.printStackTrace();
+            log.error("Exception in cancelTest service method", e);
             throw e;
         }
     }
@@ -0,0 +1,77 @@
+package com.classassess.classassess.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Hashed timing wheel for idle expiry. Touching a key moves it to the current slot in O(1);
+ * each tick expires only the keys in the slot that has just gone stale, so nothing is scanned.
+ */
+public class TimingWheel<K> {
+
+    private final List<Set<K>> slots;
+    private final Map<K, Integer> slotByKey = new HashMap<>();
+    private int cursor;
+
+    /**
+     * @param ticksToExpire number of ticks without a touch before a key expires
+     */
+    public TimingWheel(int ticksToExpire) {
+        if (ticksToExpire < 1) {
+            throw new IllegalArgumentException("ticksToExpire must be at least 1");
+        }
+        // One extra slot so the current slot is never the one being expired
+        this.slots = new ArrayList<>(ticksToExpire + 1);
+        for (int i = 0; i <= ticksToExpire; i++) {
+            slots.add(new HashSet<>());
+        }
+    }
+
+    /**
+     * Mark a key as active, pushing its expiry a full wheel turn away
+     */
+    public synchronized void touch(K key) {
+        Integer previous = slotByKey.put(key, cursor);
+        if (previous != null && previous != cursor) {
+            slots.get(previous).remove(key);
+        }
+        slots.get(cursor).add(key);
+    }
+
+    public synchronized boolean remove(K key) {
+        Integer slot = slotByKey.remove(key);
+        if (slot == null) {
+            return false;
+        }
+        slots.get(slot).remove(key);
+        return true;
+    }
+
+    public synchronized boolean contains(K key) {
+        return slotByKey.containsKey(key);
+    }
+
+    public synchronized int size() {
+        return slotByKey.size();
+    }
+
+    /**
+     * Advance one tick and return the keys that expired
+     */
+    public synchronized Set<K> advance() {
+        cursor = (cursor + 1) % slots.size();
+        Set<K> expired = slots.get(cursor);
+        if (expired.isEmpty()) {
+            return Set.of();
+        }
+        slots.set(cursor, new HashSet<>());
+        for (K key : expired) {
+            slotByKey.remove(key);
+        }
+        return expired;
+    }
+}
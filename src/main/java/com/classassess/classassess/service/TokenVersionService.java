@@ -0,0 +1,35 @@
+package com.classassess.classassess.service;
+
+import com.classassess.classassess.model.User;
+import com.classassess.classassess.security.ValidatedToken;
+import org.springframework.stereotype.Service;
+
+/**
+ * Token versions let every token issued to a user be revoked without a session table.
+ * The current version is read from the user snapshot the request loads anyway (the principal
+ * cache), so a revocation made on another instance takes effect there within the cache TTL.
+ */
+@Service
+public class TokenVersionService {
+
+    /**
+     * Whether the token was issued at the user's current version.
+     * Tokens without user id and version claims are never accepted.
+     */
+    public boolean isCurrent(ValidatedToken token, Integer currentVersion) {
+        Integer tokenVersion = token.getTokenVersion();
+        if (tokenVersion == null || token.getUserId() == null) {
+            return false;
+        }
+        return tokenVersion.equals(currentVersion != null ? currentVersion : 0);
+    }
+
+    /**
+     * Invalidate every token issued to the user so far. The caller saves the user and
+     * evicts them from the principal cache.
+     */
+    public void revokeTokens(User user) {
+        int next = (user.getTokenVersion() != null ? user.getTokenVersion() : 0) + 1;
+        user.setTokenVersion(next);
+    }
+}
@@ -3,6 +3,9 @@ package com.classassess.classassess.service;
 import com.classassess.classassess.model.Role;
 import com.classassess.classassess.model.User;
 import com.classassess.classassess.repository.UserRepository;
+import com.classassess.classassess.security.AuthenticatedUser;
+import com.classassess.classassess.security.ModuleAccessResolver;
+import com.classassess.classassess.security.PrincipalCache;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.Authentication;
@@ -15,12 +18,16 @@ import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Objects;
 
 @Service
 @RequiredArgsConstructor
 public class UserService implements UserDetailsService {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final PrincipalCache principalCache;
+    private final TokenVersionService tokenVersionService;
+    private final ModuleAccessResolver moduleAccessResolver;
 
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
@@ -28,12 +35,36 @@ public class UserService implements UserDetailsService {
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + email));
     }
 
-    public User getCurrentUser() {
+    /**
+     * Snapshot of the user behind an authenticated request, from the principal cache when possible
+     */
+    public AuthenticatedUser loadAuthenticatedUser(String email) throws UsernameNotFoundException {
+        return principalCache.get(email, key -> AuthenticatedUser.from((User) loadUserByUsername(key)));
+    }
+
+    /**
+     * Id, email, role and status of the caller, without touching the database
+     */
+    public AuthenticatedUser getCurrentPrincipal() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         if (authentication == null || !authentication.isAuthenticated()) {
             throw new RuntimeException("Not authenticated");
         }
-        return (User) authentication.getPrincipal();
+        Object principal = authentication.getPrincipal();
+        if (principal instanceof AuthenticatedUser user) {
+            return user;
+        }
+        if (principal instanceof User user) {
+            return AuthenticatedUser.from(user);
+        }
+        throw new RuntimeException("Not authenticated");
+    }
+
+    /**
+     * The caller as a managed entity. Repeat calls in a request are served by the persistence context.
+     */
+    public User getCurrentUser() {
+        return getUserById(getCurrentPrincipal().getId());
     }
 
     // Get all users, with option to include deleted users
@@ -92,9 +123,19 @@ public class UserService implements UserDetailsService {
         return userRepository.save(user);
     }
 
+    /**
+     * Callers may pass the managed entity they already edited (the admin status endpoints do). There is
+     * nothing left to diff against then, so its tokens are revoked whenever it isn't a detached copy.
+     */
     @Transactional
     public User updateUser(Long id, User updatedUser) {
         User existingUser = getUserById(id);
+        boolean editedInPlace = existingUser == updatedUser;
+        Role previousRole = existingUser.getRole();
+        String previousPasswordHash = existingUser.getPasswordHash();
+        User.AccountStatus previousStatus = existingUser.getAccountStatus();
+        Boolean previousEnabled = existingUser.getIsEnabled();
+        Boolean previousDeleted = existingUser.getIsDeleted();
 
         // Update fields
         existingUser.setFullName(updatedUser.getFullName());
@@ -137,14 +178,30 @@ public class UserService implements UserDetailsService {
             existingUser.setIsDeleted(updatedUser.getIsDeleted());
         }
 
+        // Tokens carry the role and status, so any change to them revokes tokens issued before it
+        if (editedInPlace
+                || previousRole != existingUser.getRole()
+                || !Objects.equals(previousPasswordHash, existingUser.getPasswordHash())
+                || previousStatus != existingUser.getAccountStatus()
+                || !Objects.equals(previousEnabled, existingUser.getIsEnabled())
+                || !Objects.equals(previousDeleted, existingUser.getIsDeleted())) {
+            tokenVersionService.revokeTokens(existingUser);
+        }
+        if (previousRole != existingUser.getRole()) {
+            moduleAccessResolver.invalidate(existingUser.getId());
+        }
+
+        principalCache.invalidate(existingUser.getEmail());
         return userRepository.save(existingUser);
     }
 
     @Transactional
     public void deleteUser(Long id) {
-        if (!userRepository.existsById(id)) {
-            throw new RuntimeException("User not found");
-        }
+        User user = userRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        tokenVersionService.revokeTokens(user);
+        principalCache.invalidate(user.getEmail());
+        moduleAccessResolver.invalidate(id);
         userRepository.deleteById(id);
     }
 
@@ -152,6 +209,8 @@ public class UserService implements UserDetailsService {
     public void changePassword(Long id, String newPassword) {
         User user = getUserById(id);
         user.setPasswordHash(passwordEncoder.encode(newPassword));
+        tokenVersionService.revokeTokens(user);
+        principalCache.invalidate(user.getEmail());
         userRepository.save(user);
     }
 
@@ -167,12 +226,14 @@ public class UserService implements UserDetailsService {
 
             // Get current admin user if available
             Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-            if (auth != null && auth.getPrincipal() instanceof User) {
-                User admin = (User) auth.getPrincipal();
+            if (auth != null && auth.getPrincipal() instanceof AuthenticatedUser admin) {
                 user.setReviewedById(admin.getId());
             }
+        } else {
+            tokenVersionService.revokeTokens(user);
         }
 
+        principalCache.invalidate(user.getEmail());
         userRepository.save(user);
     }
 
@@ -182,6 +243,8 @@ public class UserService implements UserDetailsService {
         User user = getUserById(id);
         user.setIsDeleted(true);
         user.setIsEnabled(false); // Disable the user when deleted
+        tokenVersionService.revokeTokens(user);
+        principalCache.invalidate(user.getEmail());
         return userRepository.save(user);
     }
 
@@ -190,6 +253,7 @@ public class UserService implements UserDetailsService {
     public User restoreUser(Long id) {
         User user = getUserById(id);
         user.setIsDeleted(false);
+        principalCache.invalidate(user.getEmail());
         return userRepository.save(user);
     }
 }
\ No newline at end of file
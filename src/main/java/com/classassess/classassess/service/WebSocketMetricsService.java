@@ -0,0 +1,138 @@
+package com.classassess.classassess.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.lang.Nullable;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.support.ExecutorChannelInterceptor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.messaging.SessionConnectEvent;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Tracks outbound WebSocket messages queued per session so slow consumers can be spotted
+ */
+@Service
+@Slf4j
+public class WebSocketMetricsService implements ExecutorChannelInterceptor {
+
+    private static final int TOP_SESSIONS = 10;
+
+    private final ConcurrentHashMap<String, SessionStats> sessionStats = new ConcurrentHashMap<>();
+    private final LongAdder slowConsumerDisconnects = new LongAdder();
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        SessionStats stats = statsFor(message);
+        if (stats != null) {
+            stats.enqueue();
+        }
+        return message;
+    }
+
+    @Override
+    public void afterSendCompletion(Message<?> message, MessageChannel channel, boolean sent, @Nullable Exception ex) {
+        // Rejected by the outbound executor, so it never joined the queue
+        if (!sent) {
+            dequeue(message, false);
+        }
+    }
+
+    @Override
+    public void afterMessageHandled(Message<?> message, MessageChannel channel, MessageHandler handler, @Nullable Exception ex) {
+        dequeue(message, ex == null);
+    }
+
+    @EventListener
+    public void onSessionConnect(SessionConnectEvent event) {
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(event.getMessage().getHeaders());
+        if (sessionId != null) {
+            sessionStats.putIfAbsent(sessionId, new SessionStats());
+        }
+    }
+
+    @EventListener
+    public void onSessionDisconnect(SessionDisconnectEvent event) {
+        sessionStats.remove(event.getSessionId());
+
+        // Spring closes sessions that exceed the send time or buffer limit with SESSION_NOT_RELIABLE
+        if (CloseStatus.SESSION_NOT_RELIABLE.equals(event.getCloseStatus())) {
+            slowConsumerDisconnects.increment();
+            log.warn("Disconnected slow WebSocket consumer, session {}", event.getSessionId());
+        }
+    }
+
+    /**
+     * Snapshot of outbound queue depth across all sessions
+     */
+    public Map<String, Object> getStats() {
+        int queuedMessages = 0;
+        int maxQueued = 0;
+        for (SessionStats stats : sessionStats.values()) {
+            int pending = stats.pending.get();
+            queuedMessages += pending;
+            maxQueued = Math.max(maxQueued, pending);
+        }
+
+        List<Map<String, Object>> busiestSessions = sessionStats.entrySet().stream()
+                .filter(entry -> entry.getValue().pending.get() > 0)
+                .sorted(Comparator.comparingInt((Map.Entry<String, SessionStats> entry) -> entry.getValue().pending.get()).reversed())
+                .limit(TOP_SESSIONS)
+                .map(entry -> {
+                    Map<String, Object> session = new HashMap<>();
+                    session.put("sessionId", entry.getKey());
+                    session.put("queued", entry.getValue().pending.get());
+                    session.put("peakQueued", entry.getValue().peak.get());
+                    session.put("delivered", entry.getValue().delivered.sum());
+                    return session;
+                })
+                .collect(Collectors.toList());
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("sessions", sessionStats.size());
+        result.put("queuedMessages", queuedMessages);
+        result.put("maxQueuedPerSession", maxQueued);
+        result.put("slowConsumerDisconnects", slowConsumerDisconnects.sum());
+        result.put("busiestSessions", busiestSessions);
+        return result;
+    }
+
+    private SessionStats statsFor(Message<?> message) {
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(message.getHeaders());
+        return sessionId != null ? sessionStats.get(sessionId) : null;
+    }
+
+    private void dequeue(Message<?> message, boolean delivered) {
+        SessionStats stats = statsFor(message);
+        if (stats != null) {
+            stats.pending.decrementAndGet();
+            if (delivered) {
+                stats.delivered.increment();
+            }
+        }
+    }
+
+    private static class SessionStats {
+        private final AtomicInteger pending = new AtomicInteger();
+        private final AtomicInteger peak = new AtomicInteger();
+        private final LongAdder delivered = new LongAdder();
+
+        void enqueue() {
+            int current = pending.incrementAndGet();
+            peak.accumulateAndGet(current, Math::max);
+        }
+    }
+}
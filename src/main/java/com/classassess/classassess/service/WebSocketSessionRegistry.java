@@ -0,0 +1,57 @@
+package com.classassess.classassess.service;
+
+import com.classassess.classassess.security.StompPrincipal;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the authenticated STOMP sessions of each user connected to this node
+ */
+@Service
+public class WebSocketSessionRegistry {
+
+    private final Map<Long, Set<String>> sessionsByUser = new ConcurrentHashMap<>();
+    private final Map<String, Long> userBySession = new ConcurrentHashMap<>();
+
+    public void register(String sessionId, StompPrincipal principal) {
+        if (sessionId == null) {
+            return;
+        }
+        userBySession.put(sessionId, principal.getUserId());
+        sessionsByUser.computeIfAbsent(principal.getUserId(), id -> ConcurrentHashMap.newKeySet()).add(sessionId);
+    }
+
+    @EventListener
+    public void onSessionDisconnect(SessionDisconnectEvent event) {
+        Long userId = userBySession.remove(event.getSessionId());
+        if (userId == null) {
+            return;
+        }
+        sessionsByUser.computeIfPresent(userId, (id, sessions) -> {
+            sessions.remove(event.getSessionId());
+            return sessions.isEmpty() ? null : sessions;
+        });
+    }
+
+    public boolean isConnected(Long userId) {
+        return sessionsByUser.containsKey(userId);
+    }
+
+    public Set<String> getSessionIds(Long userId) {
+        return Collections.unmodifiableSet(sessionsByUser.getOrDefault(userId, Collections.emptySet()));
+    }
+
+    public int getConnectedUserCount() {
+        return sessionsByUser.size();
+    }
+
+    public int getSessionCount() {
+        return userBySession.size();
+    }
+}
@@ -0,0 +1,28 @@
+package com.classassess.classassess;
+
+import org.apache.activemq.artemis.core.config.Configuration;
+import org.apache.activemq.artemis.core.config.impl.ConfigurationImpl;
+import org.apache.activemq.artemis.core.server.embedded.EmbeddedActiveMQ;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * In-process STOMP broker standing in for the external relay broker in tests
+ */
+@TestConfiguration(proxyBeanMethods = false)
+class EmbeddedStompBrokerConfiguration {
+
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    EmbeddedActiveMQ embeddedStompBroker(@Value("${app.websocket.broker.relay-port:61613}") int port) throws Exception {
+        // /topic destinations fan out to every subscriber, /queue destinations go to one consumer
+        Configuration config = new ConfigurationImpl()
+                .setPersistenceEnabled(false)
+                .setSecurityEnabled(false)
+                .addAcceptorConfiguration("stomp", "tcp://localhost:" + port
+                        + "?protocols=STOMP;anycastPrefix=/queue/;multicastPrefix=/topic/");
+
+        return new EmbeddedActiveMQ().setConfiguration(config);
+    }
+
+}
@@ -0,0 +1,112 @@
+package com.classassess.classassess;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.logging.LogLevel;
+import org.springframework.boot.logging.LoggingInitializationContext;
+import org.springframework.boot.logging.LoggingSystem;
+import org.springframework.core.env.PropertiesPropertySource;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.support.PropertiesLoaderUtils;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.Locale;
+import java.util.Properties;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Times the logging done on a test submission under the dev and prod logback setups
+ * (logback-spring.xml plus the logging levels of each profile). Console output is discarded, so
+ * the numbers are the cost seen by the request thread. Run with ./gradlew benchmark.
+ */
+@Tag("benchmark")
+class LoggingOverheadBenchmarkTest {
+
+    private static final int WARMUP_REQUESTS = 50_000;
+    private static final int MEASURED_REQUESTS = 200_000;
+    private static final long TEST_ID = 42L;
+
+    private final LoggingSystem loggingSystem = LoggingSystem.get(getClass().getClassLoader());
+    private final PrintStream originalOut = System.out;
+
+    @AfterEach
+    void restoreConsole() {
+        loggingSystem.cleanUp();
+        System.setOut(originalOut);
+    }
+
+    @Test
+    void compareDevAndProdLoggingOnSubmitPath() throws IOException {
+        double devNanos = nanosPerRequest();
+        double prodNanos = nanosPerRequest("prod");
+
+        originalOut.printf(Locale.ROOT, "Logging per submit request: dev %.0f ns, prod %.0f ns (%.1fx)%n",
+                devNanos, prodNanos, devNanos / prodNanos);
+        assertThat(devNanos).isPositive();
+        assertThat(prodNanos).isPositive();
+    }
+
+    private double nanosPerRequest(String... profiles) throws IOException {
+        configureLogging(profiles);
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        Logger serviceLog = LoggerFactory.getLogger("com.classassess.classassess.service.TestService");
+        Logger sqlLog = LoggerFactory.getLogger("org.hibernate.SQL");
+
+        for (int i = 0; i < WARMUP_REQUESTS; i++) {
+            submitTest(serviceLog, sqlLog, i);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_REQUESTS; i++) {
+            submitTest(serviceLog, sqlLog, i);
+        }
+        double nanos = (double) (System.nanoTime() - start) / MEASURED_REQUESTS;
+
+        // Stopping the context drains the async appender before the next run
+        loggingSystem.cleanUp();
+        System.setOut(originalOut);
+        return nanos;
+    }
+
+    /**
+     * The statements logged while a student submits a test: lookups and SQL at debug, the outcome at info
+     * and the occasional late submission at warn
+     */
+    private static void submitTest(Logger serviceLog, Logger sqlLog, long studentId) {
+        serviceLog.debug("Submitting test {} for student {}", TEST_ID, studentId);
+        sqlLog.debug("select t1_0.id,t1_0.title,t1_0.end_time from tests t1_0 where t1_0.id=?");
+        sqlLog.debug("select q1_0.id,q1_0.type,q1_0.points from questions q1_0 where q1_0.test_id=?");
+        serviceLog.debug("Graded {} answers for student {}", 20, studentId);
+        sqlLog.debug("insert into submissions (student_id,test_id,score,submitted_at) values (?,?,?,?)");
+        serviceLog.info("Student {} submitted test {}", studentId, TEST_ID);
+        if (studentId % 1000 == 0) {
+            serviceLog.warn("Submission from student {} for test {} arrived after the deadline", studentId, TEST_ID);
+        }
+    }
+
+    private void configureLogging(String... profiles) throws IOException {
+        Properties properties = PropertiesLoaderUtils.loadProperties(new ClassPathResource("application.properties"));
+        for (String profile : profiles) {
+            properties.putAll(PropertiesLoaderUtils.loadProperties(
+                    new ClassPathResource("application-" + profile + ".properties")));
+        }
+        MockEnvironment environment = new MockEnvironment();
+        environment.setActiveProfiles(profiles);
+        environment.getPropertySources().addFirst(new PropertiesPropertySource("application", properties));
+
+        loggingSystem.beforeInitialize();
+        loggingSystem.initialize(new LoggingInitializationContext(environment), "classpath:logback-spring.xml", null);
+        for (String name : properties.stringPropertyNames()) {
+            if (name.startsWith("logging.level.")) {
+                loggingSystem.setLogLevel(name.substring("logging.level.".length()),
+                        LogLevel.valueOf(properties.getProperty(name).trim().toUpperCase(Locale.ROOT)));
+            }
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.classassess.classassess;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+
+/**
+ * Context load in STOMP relay mode, against an embedded broker
+ */
+@Import({TestcontainersConfiguration.class, EmbeddedStompBrokerConfiguration.class})
+@SpringBootTest(properties = "app.websocket.broker.mode=relay")
+class RelayBrokerApplicationTests {
+
+    @Test
+    void contextLoads() {
+    }
+
+}
@@ -0,0 +1,75 @@
+package com.classassess.classassess.security;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenBucketTest {
+
+    private static final long START = 1_000_000L;
+
+    @Test
+    void allowsBurstUpToCapacityThenRejects() {
+        TokenBucket bucket = new TokenBucket(3, 1.0, START);
+
+        assertThat(bucket.tryConsume(START)).isTrue();
+        assertThat(bucket.tryConsume(START)).isTrue();
+        assertThat(bucket.tryConsume(START)).isTrue();
+        assertThat(bucket.tryConsume(START)).isFalse();
+    }
+
+    @Test
+    void refillsContinuouslyAtTheConfiguredRate() {
+        // One token a second: not back after 999 ms, back after a full second
+        TokenBucket early = emptyBucket(1.0);
+        assertThat(early.tryConsume(START + 999)).isFalse();
+
+        TokenBucket onTime = emptyBucket(1.0);
+        assertThat(onTime.tryConsume(START + 1_000)).isTrue();
+        assertThat(onTime.tryConsume(START + 1_000)).isFalse();
+    }
+
+    @Test
+    void neverRefillsBeyondCapacity() {
+        TokenBucket bucket = new TokenBucket(2, 10.0, START);
+
+        long later = START + 60_000;
+        assertThat(bucket.tryConsume(later)).isTrue();
+        assertThat(bucket.tryConsume(later)).isTrue();
+        assertThat(bucket.tryConsume(later)).isFalse();
+    }
+
+    @Test
+    void clockGoingBackwardsDoesNotRefill() {
+        TokenBucket bucket = new TokenBucket(1, 1.0, START);
+        bucket.tryConsume(START);
+
+        assertThat(bucket.tryConsume(START - 5_000)).isFalse();
+    }
+
+    @Test
+    void retryAfterRoundsUpToWholeSeconds() {
+        TokenBucket bucket = new TokenBucket(1, 0.5, START);
+        bucket.tryConsume(START);
+
+        // Half a token a second, so the next one is two seconds away
+        assertThat(bucket.secondsUntilNextToken()).isEqualTo(2);
+
+        TokenBucket fast = new TokenBucket(1, 10.0, START);
+        fast.tryConsume(START);
+        assertThat(fast.secondsUntilNextToken()).isEqualTo(1);
+    }
+
+    @Test
+    void isIdleOnlyOnceFullyRefilled() {
+        assertThat(new TokenBucket(1, 1.0, START).isIdle(START)).isTrue();
+        assertThat(emptyBucket(1.0).isIdle(START + 999)).isFalse();
+        assertThat(emptyBucket(1.0).isIdle(START + 1_000)).isTrue();
+    }
+
+    private static TokenBucket emptyBucket(double refillPerSecond) {
+        TokenBucket bucket = new TokenBucket(1, refillPerSecond, START);
+        bucket.tryConsume(START);
+        return bucket;
+    }
+}
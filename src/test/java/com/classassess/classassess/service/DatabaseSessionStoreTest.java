@@ -0,0 +1,99 @@
+package com.classassess.classassess.service;
+
+import com.classassess.classassess.repository.ActiveSessionRepository;
+import com.classassess.classassess.repository.RevokedTokenRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DatabaseSessionStoreTest {
+
+    private static final long MINUTE = 60_000L;
+    private static final long T0 = 28_000_000L * MINUTE;
+    private static final long OVERLAP = MINUTE;
+
+    private final ActiveSessionRepository activeSessionRepository = mock(ActiveSessionRepository.class);
+    private final RevokedTokenRepository revokedTokenRepository = mock(RevokedTokenRepository.class);
+    private final DatabaseSessionStore store = new DatabaseSessionStore(activeSessionRepository, revokedTokenRepository);
+
+    DatabaseSessionStoreTest() {
+        ReflectionTestUtils.setField(store, "syncOverlapMs", OVERLAP);
+    }
+
+    @Test
+    void localRevokeIsDeniedImmediatelyAndPersisted() {
+        store.revoke("token-1", T0 + MINUTE);
+
+        assertThat(store.isRevoked("token-1")).isTrue();
+        verify(revokedTokenRepository).insertIgnore(eq("token-1"), eq(T0 + MINUTE), anyLong());
+    }
+
+    @Test
+    void firstSyncLoadsEveryUnexpiredTokenThenOnlyRecentRevocations() {
+        when(revokedTokenRepository.findUnexpired(T0))
+                .thenReturn(rows(new Object[]{"token-1", T0 + MINUTE}));
+        store.syncRevokedTokens(T0);
+
+        when(revokedTokenRepository.findRevokedSince(T0 - OVERLAP, T0 + 5_000))
+                .thenReturn(rows(new Object[]{"token-2", T0 + 2 * MINUTE}));
+        store.syncRevokedTokens(T0 + 5_000);
+
+        assertThat(store.isRevoked("token-1")).isTrue();
+        assertThat(store.isRevoked("token-2")).isTrue();
+        verify(revokedTokenRepository).findUnexpired(T0);
+        verify(revokedTokenRepository).findRevokedSince(T0 - OVERLAP, T0 + 5_000);
+    }
+
+    @Test
+    void failedSyncKeepsTheDenylistAndRetriesFromTheSamePoint() {
+        when(revokedTokenRepository.findUnexpired(T0))
+                .thenReturn(rows(new Object[]{"token-1", T0 + MINUTE}));
+        store.syncRevokedTokens(T0);
+
+        when(revokedTokenRepository.findRevokedSince(T0 - OVERLAP, T0 + 5_000))
+                .thenThrow(new RuntimeException("connection refused"));
+        store.syncRevokedTokens(T0 + 5_000);
+        store.syncRevokedTokens(T0 + 10_000);
+
+        assertThat(store.isRevoked("token-1")).isTrue();
+        verify(revokedTokenRepository).findRevokedSince(T0 - OVERLAP, T0 + 10_000);
+    }
+
+    @Test
+    void purgeDropsExpiredTokensAndInactiveSessions() {
+        when(revokedTokenRepository.findUnexpired(T0)).thenReturn(rows(
+                new Object[]{"expired", T0 + MINUTE},
+                new Object[]{"live", T0 + 10 * MINUTE}));
+        store.syncRevokedTokens(T0);
+
+        long now = T0 + 2 * MINUTE;
+        store.purgeExpired(now);
+
+        assertThat(store.isRevoked("expired")).isFalse();
+        assertThat(store.isRevoked("live")).isTrue();
+        verify(revokedTokenRepository).deleteExpired(now);
+        verify(activeSessionRepository).deleteInactive(now / MINUTE - SessionService.ACTIVE_WINDOW_MINUTES);
+    }
+
+    @Test
+    void activityIsWrittenOncePerMinute() {
+        store.recordActivity("alice", null, T0);
+        store.recordActivity("alice", null, T0 + 30_000);
+        verify(activeSessionRepository).touch("alice", null, T0 / MINUTE);
+
+        store.recordActivity("alice", null, T0 + MINUTE);
+        verify(activeSessionRepository).touch("alice", null, T0 / MINUTE + 1);
+    }
+
+    private static List<Object[]> rows(Object[]... rows) {
+        return List.of(rows);
+    }
+}
@@ -0,0 +1,42 @@
+package com.classassess.classassess.service;
+
+import com.classassess.classassess.model.Role;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InMemorySessionStoreTest {
+
+    private static final long MINUTE = 60_000L;
+    private static final long T0 = 28_000_000L * MINUTE;
+
+    private final InMemorySessionStore store = new InMemorySessionStore();
+
+    @Test
+    void revokedTokenIsDeniedUntilItExpires() {
+        store.revoke("token-1", T0 + MINUTE);
+
+        assertThat(store.isRevoked("token-1")).isTrue();
+        assertThat(store.isRevoked("token-2")).isFalse();
+
+        store.purgeExpired(T0 + MINUTE);
+        assertThat(store.isRevoked("token-1")).isTrue();
+
+        store.purgeExpired(T0 + MINUTE + 1);
+        assertThat(store.isRevoked("token-1")).isFalse();
+    }
+
+    @Test
+    void purgeDropsOnlyUsersOutsideTheWindow() {
+        store.recordActivity("alice", Role.STUDENT, T0);
+        store.recordActivity("bob", Role.LECTURER, T0 + 10 * MINUTE);
+
+        long now = T0 + SessionService.ACTIVE_WINDOW_MINUTES * MINUTE;
+        store.purgeExpired(now);
+
+        assertThat(store.getActiveCount(now)).isEqualTo(1);
+        assertThat(store.getActiveCountByRole(now))
+                .containsEntry("STUDENT", 0L)
+                .containsEntry("LECTURER", 1L);
+    }
+}
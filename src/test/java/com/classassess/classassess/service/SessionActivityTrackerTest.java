@@ -0,0 +1,111 @@
+package com.classassess.classassess.service;
+
+import com.classassess.classassess.model.Role;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SessionActivityTrackerTest {
+
+    private static final long MINUTE = 60_000L;
+    // Arbitrary whole minute, so offsets below land in predictable buckets
+    private static final long T0 = 28_000_000L * MINUTE;
+
+    private final SessionActivityTracker tracker = new SessionActivityTracker(5);
+
+    @Test
+    void countsEachUserOnceWithinTheWindow() {
+        tracker.record("alice", Role.STUDENT, T0);
+        tracker.record("alice", Role.STUDENT, T0 + 10_000);
+        tracker.record("bob", Role.STUDENT, T0 + 20_000);
+
+        assertThat(tracker.getActiveCount(T0 + 30_000)).isEqualTo(2);
+    }
+
+    @Test
+    void userSeenAgainInALaterMinuteMovesRatherThanDoubleCounts() {
+        tracker.record("alice", Role.STUDENT, T0);
+        tracker.record("alice", Role.STUDENT, T0 + MINUTE);
+        tracker.record("alice", Role.STUDENT, T0 + 3 * MINUTE);
+
+        assertThat(tracker.getActiveCount(T0 + 3 * MINUTE)).isEqualTo(1);
+    }
+
+    @Test
+    void userDropsOutOnceTheirMinuteLeavesTheWindow() {
+        tracker.record("alice", Role.STUDENT, T0);
+
+        assertThat(tracker.getActiveCount(T0 + 4 * MINUTE + 59_999)).isEqualTo(1);
+        assertThat(tracker.getActiveCount(T0 + 5 * MINUTE)).isZero();
+    }
+
+    @Test
+    void countsByRoleIncludingTokensWithoutARole() {
+        tracker.record("alice", Role.STUDENT, T0);
+        tracker.record("bob", Role.STUDENT, T0);
+        tracker.record("carol", Role.LECTURER, T0);
+
+        assertThat(tracker.getActiveCountByRole(T0))
+                .containsEntry("STUDENT", 2L)
+                .containsEntry("LECTURER", 1L)
+                .containsEntry("ADMIN", 0L)
+                .doesNotContainKey("UNKNOWN");
+
+        tracker.record("dave", null, T0);
+        assertThat(tracker.getActiveCountByRole(T0)).containsEntry("UNKNOWN", 1L);
+    }
+
+    @Test
+    void roleChangeMovesTheUserBetweenCounters() {
+        tracker.record("alice", Role.STUDENT, T0);
+        tracker.record("alice", Role.LECTURER, T0 + 1_000);
+
+        assertThat(tracker.getActiveCountByRole(T0 + 1_000))
+                .containsEntry("STUDENT", 0L)
+                .containsEntry("LECTURER", 1L);
+    }
+
+    @Test
+    void removeStopsCountingTheUser() {
+        tracker.record("alice", Role.STUDENT, T0);
+        tracker.record("bob", Role.STUDENT, T0);
+
+        tracker.remove("alice");
+        tracker.remove("alice");
+
+        assertThat(tracker.getActiveCount(T0)).isEqualTo(1);
+    }
+
+    @Test
+    void reusedBucketIsNotDecrementedForItsPreviousMinute() {
+        tracker.record("alice", Role.STUDENT, T0);
+        // Six buckets for a five-minute window, so T0's bucket is reused six minutes later
+        tracker.record("bob", Role.STUDENT, T0 + 6 * MINUTE);
+        tracker.record("alice", Role.STUDENT, T0 + 6 * MINUTE);
+
+        assertThat(tracker.getActiveCount(T0 + 6 * MINUTE)).isEqualTo(2);
+    }
+
+    @Test
+    void pruneForgetsStaleUsersWithoutChangingCounts() {
+        tracker.record("alice", Role.STUDENT, T0);
+        tracker.record("bob", Role.STUDENT, T0 + 5 * MINUTE);
+
+        tracker.prune(T0 + 5 * MINUTE);
+        assertThat(tracker.getActiveCount(T0 + 5 * MINUTE)).isEqualTo(1);
+
+        // Alice comes back as a new user rather than being moved out of an expired bucket
+        tracker.record("alice", Role.STUDENT, T0 + 5 * MINUTE);
+        assertThat(tracker.getActiveCount(T0 + 5 * MINUTE)).isEqualTo(2);
+    }
+
+    @Test
+    void clearResetsEverything() {
+        tracker.record("alice", Role.STUDENT, T0);
+        tracker.clear();
+
+        assertThat(tracker.getActiveCount(T0)).isZero();
+        tracker.record("alice", Role.STUDENT, T0);
+        assertThat(tracker.getActiveCount(T0)).isEqualTo(1);
+    }
+}
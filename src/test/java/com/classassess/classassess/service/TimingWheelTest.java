@@ -0,0 +1,70 @@
+package com.classassess.classassess.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TimingWheelTest {
+
+    @Test
+    void keyExpiresOnceTheWheelHasTurned() {
+        TimingWheel<String> wheel = new TimingWheel<>(3);
+        wheel.touch("a");
+
+        for (int tick = 0; tick < 3; tick++) {
+            assertThat(wheel.advance()).isEmpty();
+        }
+        assertThat(wheel.advance()).containsExactly("a");
+        assertThat(wheel.contains("a")).isFalse();
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void touchPushesExpiryBack() {
+        TimingWheel<String> wheel = new TimingWheel<>(3);
+        wheel.touch("a");
+        wheel.advance();
+        wheel.advance();
+        wheel.touch("a");
+
+        for (int tick = 0; tick < 3; tick++) {
+            assertThat(wheel.advance()).isEmpty();
+        }
+        assertThat(wheel.advance()).containsExactly("a");
+    }
+
+    @Test
+    void removedKeyNeverExpires() {
+        TimingWheel<String> wheel = new TimingWheel<>(2);
+        wheel.touch("a");
+        wheel.touch("b");
+
+        assertThat(wheel.remove("a")).isTrue();
+        assertThat(wheel.remove("a")).isFalse();
+
+        wheel.advance();
+        wheel.advance();
+        Set<String> expired = wheel.advance();
+        assertThat(expired).containsExactly("b");
+    }
+
+    @Test
+    void keysTouchedOnDifferentTicksExpireSeparately() {
+        TimingWheel<String> wheel = new TimingWheel<>(1);
+        wheel.touch("a");
+        wheel.advance();
+        wheel.touch("b");
+
+        assertThat(wheel.advance()).containsExactly("a");
+        assertThat(wheel.advance()).containsExactly("b");
+    }
+
+    @Test
+    void rejectsEmptyWheel() {
+        assertThatThrownBy(() -> new TimingWheel<String>(0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}